@@ -0,0 +1,60 @@
+package com.game.memorygame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@OperationsPerInvocation(BatchEvaluationBenchmark.N_BOARDS)
+public class BatchEvaluationBenchmark {
+    static final int N_BOARDS = 16384;
+
+    @Param({"vector", "scalar"})
+    public String evaluator;
+
+    private BatchEvaluator batchEvaluator;
+    private final int[] nSelected = new int[N_BOARDS];
+    private final int[] firstPairIds = new int[N_BOARDS];
+    private final int[] lastPairIds = new int[N_BOARDS];
+    private final int[] matching = new int[N_BOARDS];
+    private final int[] outcomes = new int[N_BOARDS];
+    private final float[] rewards = new float[N_BOARDS];
+
+    static BatchEvaluator createEvaluator(String name) {
+        return switch (name) {
+            case "vector" -> new VectorBatchEvaluator();
+            case "scalar" -> new ScalarBatchEvaluator();
+            default -> throw new IllegalArgumentException("unknown evaluator: " + name);
+        };
+    }
+
+    /**
+     * Half of the boards completed a selection, a third of those with a match, as after a step of 6x5 boards
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        batchEvaluator = createEvaluator(evaluator);
+        Xoshiro256PlusPlus random = new Xoshiro256PlusPlus(1);
+        for (int board = 0; board < N_BOARDS; board++) {
+            nSelected[board] = 1 + Dealer.nextInt(random, GameEngine.DEFAULT_GROUP_SIZE);
+            firstPairIds[board] = Dealer.nextInt(random, 15);
+            lastPairIds[board] = Dealer.nextInt(random, 3) == 0 ? firstPairIds[board] : firstPairIds[board] + 1;
+            matching[board] = 1;
+        }
+    }
+
+    /**
+     * Evaluates the selections of every board, reported per board
+     */
+    @Benchmark
+    public int[] evaluate() {
+        batchEvaluator.evaluate(0, N_BOARDS, GameEngine.DEFAULT_GROUP_SIZE, nSelected, firstPairIds, lastPairIds,
+                matching, outcomes, rewards);
+        return outcomes;
+    }
+}
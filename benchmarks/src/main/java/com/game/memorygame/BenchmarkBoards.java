@@ -0,0 +1,59 @@
+package com.game.memorygame;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Helpers shared by the benchmarks
+ */
+final class BenchmarkBoards {
+    private static boolean toolkitStarted;
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * Deals pair ids the same way BoardComponent does, without creating any nodes
+     * @return pair id of each slot
+     */
+    static int[] dealPairIds(int nCards) {
+        return Dealer.deal(nCards, GameEngine.DEFAULT_GROUP_SIZE, new Xoshiro256PlusPlus(1));
+    }
+
+    /**
+     * Groups the slots by pair id
+     * @return slots ordered so that the cards of pair p are at [p * groupSize, (p + 1) * groupSize)
+     */
+    static int[] slotsByPair(int[] pairIds) {
+        int groupSize = GameEngine.DEFAULT_GROUP_SIZE;
+        int[] slots = new int[pairIds.length];
+        int[] found = new int[pairIds.length / groupSize];
+        for (int slot = 0; slot < pairIds.length; slot++) {
+            int pairId = pairIds[slot];
+            slots[pairId * groupSize + found[pairId]++] = slot;
+        }
+        return slots;
+    }
+
+    /**
+     * Finds the slot of a card that does not match the card in slot 0
+     */
+    static int findMismatch(int[] pairIds) {
+        for (int i = 1; i < pairIds.length; i++) {
+            if (pairIds[i] != pairIds[0]) return i;
+        }
+        throw new IllegalArgumentException("board has no mismatching cards");
+    }
+
+    /**
+     * Starts the JavaFX toolkit once per fork; required by benchmarks that create BoardComponent
+     */
+    static synchronized void startToolkit() throws InterruptedException {
+        if (toolkitStarted) return;
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        latch.await();
+        toolkitStarted = true;
+    }
+}
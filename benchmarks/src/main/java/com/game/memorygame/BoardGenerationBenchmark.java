@@ -0,0 +1,78 @@
+package com.game.memorygame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Each benchmark takes only the states it needs, so the giant size is dealt but never built into a scene graph,
+ * and only the sequential deal is run once per generator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BoardGenerationBenchmark {
+    /**
+     * Size of a board that is only dealt, without any nodes
+     */
+    @State(Scope.Benchmark)
+    public static class DealtBoard {
+        @Param({"6x5", "100x100", "1000x1000", "5000x5000"})
+        public String boardSize;
+
+        int nCards;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            nCards = CommandLine.columns(boardSize) * CommandLine.rows(boardSize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Generator {
+        @Param({"xoshiro256++", "SplittableRandom"})
+        public String generator;
+
+        RandomGenerator random;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            random = switch (generator) {
+                case "SplittableRandom" -> new SplittableRandom(1);
+                default -> new Xoshiro256PlusPlus(1);
+            };
+        }
+    }
+
+    /**
+     * Size of a board built with its scene graph; a node per card rules out the giant size
+     */
+    @State(Scope.Benchmark)
+    public static class NodeBoard {
+        @Param({"6x5", "100x100", "1000x1000"})
+        public String boardSize;
+    }
+
+    @Benchmark
+    public int[] deal(DealtBoard board, Generator generator) {
+        return Dealer.deal(board.nCards, GameEngine.DEFAULT_GROUP_SIZE, generator.random);
+    }
+
+    @Benchmark
+    public int[] dealParallel(DealtBoard board) {
+        return Dealer.dealParallel(board.nCards, GameEngine.DEFAULT_GROUP_SIZE, 1);
+    }
+
+    /**
+     * Builds a complete board, including the scene graph nodes created by setup()
+     */
+    @Benchmark
+    public BoardComponent setupBoard(NodeBoard board) throws InterruptedException {
+        BenchmarkBoards.startToolkit();
+        return new BoardComponent(CommandLine.columns(board.boardSize), CommandLine.rows(board.boardSize));
+    }
+}
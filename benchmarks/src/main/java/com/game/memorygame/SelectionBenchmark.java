@@ -0,0 +1,102 @@
+package com.game.memorygame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectionBenchmark {
+    @Param({"6x5", "100x100", "1000x1000"})
+    public String boardSize;
+
+    private int[] pairIds;
+    private int[] slotsByPair;
+    private GameEngine engine;
+    private int mismatchSlot;
+    private int nextPair;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int nCards = CommandLine.columns(boardSize) * CommandLine.rows(boardSize);
+        pairIds = BenchmarkBoards.dealPairIds(nCards);
+        engine = new GameEngine(pairIds);
+        mismatchSlot = BenchmarkBoards.findMismatch(pairIds);
+        slotsByPair = BenchmarkBoards.slotsByPair(pairIds);
+    }
+
+    /**
+     * A full mismatching turn: both flips followed by the evaluation that hides the cards again
+     */
+    @Benchmark
+    public boolean mismatchTurn() {
+        engine.flip(0);
+        engine.flip(mismatchSlot);
+        return engine.evaluateSelection();
+    }
+
+    /**
+     * A full matching turn; the same deal is played again once every pair has been matched
+     */
+    @Benchmark
+    public boolean matchTurn() {
+        if (engine.isGameOver()) {
+            engine.reset();
+            nextPair = 0;
+        }
+        int first = nextPair * GameEngine.DEFAULT_GROUP_SIZE;
+        nextPair++;
+        engine.flip(slotsByPair[first]);
+        engine.flip(slotsByPair[first + 1]);
+        return engine.evaluateSelection();
+    }
+
+    @State(Scope.Thread)
+    public static class FxBoard {
+        BoardComponent board;
+        VirtualRevealScheduler revealScheduler;
+        CardSelectedEvent firstCard;
+        CardSelectedEvent mismatchingCard;
+
+        @Setup(Level.Trial)
+        public void setup(SelectionBenchmark benchmark) throws InterruptedException {
+            BenchmarkBoards.startToolkit();
+            revealScheduler = new VirtualRevealScheduler();
+            board = new BoardComponent(
+                    CommandLine.columns(benchmark.boardSize),
+                    CommandLine.rows(benchmark.boardSize),
+                    GameEngine.DEFAULT_GROUP_SIZE, 1, BoardComponent.RenderMode.NODES, revealScheduler);
+            GameEngine engine = board.getEngine();
+            int mismatchSlot = 1;
+            while (engine.getPairId(mismatchSlot) == engine.getPairId(0)) {
+                mismatchSlot++;
+            }
+            firstCard = new CardSelectedEvent(0);
+            mismatchingCard = new CardSelectedEvent(mismatchSlot);
+        }
+    }
+
+    /**
+     * A full mismatching turn through BoardComponent's handler: both cards are revealed, the end of the turn is
+     * scheduled, and running it on the virtual clock hides them again
+     */
+    @Benchmark
+    public boolean cardSelectedTurn(FxBoard fxBoard) {
+        fxBoard.board.fireEvent(fxBoard.firstCard);
+        fxBoard.board.fireEvent(fxBoard.mismatchingCard);
+        return fxBoard.revealScheduler.runPendingTask();
+    }
+
+    /**
+     * Dispatches a CardSelectedEvent for a card that is already selected, which the handler ignores: the baseline
+     * cost of going through the handler. Only the first invocation selects the card.
+     */
+    @Benchmark
+    public void ignoredCardSelectedEvent(FxBoard fxBoard) {
+        fxBoard.board.fireEvent(fxBoard.firstCard);
+    }
+}
@@ -0,0 +1,52 @@
+package com.game.memorygame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@OperationsPerInvocation(VectorEnvironmentBenchmark.N_BOARDS)
+public class VectorEnvironmentBenchmark {
+    static final int N_BOARDS = 16384;
+    // steps cycle through this many precomputed action vectors
+    private static final int N_ACTION_VECTORS = 64;
+
+    @Param({"6x5", "100x100"})
+    public String boardSize;
+
+    @Param({"vector", "scalar"})
+    public String evaluator;
+
+    private VectorEnvironment environment;
+    private int[][] actionVectors;
+    private int nextActions;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int nSlots = CommandLine.columns(boardSize) * CommandLine.rows(boardSize);
+        environment = new VectorEnvironment(N_BOARDS, nSlots, GameEngine.DEFAULT_GROUP_SIZE, 1,
+                BatchEvaluationBenchmark.createEvaluator(evaluator));
+        Xoshiro256PlusPlus random = new Xoshiro256PlusPlus(2);
+        actionVectors = new int[N_ACTION_VECTORS][N_BOARDS];
+        for (int[] actions : actionVectors) {
+            for (int board = 0; board < N_BOARDS; board++) {
+                actions[board] = Dealer.nextInt(random, nSlots);
+            }
+        }
+    }
+
+    /**
+     * One step of every board with random actions, reported per board step
+     */
+    @Benchmark
+    public float[] step() {
+        environment.step(actionVectors[nextActions]);
+        nextActions = (nextActions + 1) % N_ACTION_VECTORS;
+        return environment.getRewards();
+    }
+}
@@ -0,0 +1,65 @@
+package com.game.memorygame;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireProtocolBenchmark implements WireProtocol.EventHandler<Object> {
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BufferPool.BUFFER_SIZE);
+    private long checksum;
+
+    /**
+     * Encodes and decodes the events of a mismatching turn, as the server sends them to a client
+     */
+    @Benchmark
+    public long mismatchTurnEvents() throws ProtocolException {
+        buffer.clear();
+        WireProtocol.putCardRevealed(buffer, 1234, 0, 7, 3, 0xFF8040C0);
+        WireProtocol.putCardRevealed(buffer, 1234, 0, 250, 11, 0xFF40C080);
+        WireProtocol.putMismatch(buffer, 1234, 1);
+        WireProtocol.decodeEvents(buffer.flip(), null, this);
+        return checksum;
+    }
+
+    @Override
+    public void created(Object context, int gameId) {
+    }
+
+    @Override
+    public void joined(Object context, int gameId, int player) {
+    }
+
+    @Override
+    public void gameStarted(Object context, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+    }
+
+    @Override
+    public void cardRevealed(Object context, int gameId, int player, int slot, int pairId, int argb) {
+        checksum += slot + pairId + argb;
+    }
+
+    @Override
+    public void match(Object context, int gameId, int player, int score) {
+    }
+
+    @Override
+    public void mismatch(Object context, int gameId, int nextPlayer) {
+        checksum += nextPlayer;
+    }
+
+    @Override
+    public void gameOver(Object context, int gameId) {
+    }
+
+    @Override
+    public void error(Object context, int gameId, int errorCode) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.game.memorygame;
+
+/**
+ * Evaluates the selections completed by one step of {@link VectorEnvironment} on a range of boards, deciding which
+ * boards matched; the card states are then updated by the environment, since the selected slots of different boards
+ * are scattered across the state array.
+ */
+interface BatchEvaluator {
+    /** outcome of a board whose selection is not complete */
+    int NO_OUTCOME = -1;
+
+    /**
+     * For each board b in [from, to), sets outcomes[b] to the {@link CardState} ordinal the selected cards turn into,
+     * DISABLED or INACTIVE, if the selection is complete and to {@link #NO_OUTCOME} otherwise, and sets rewards[b] to
+     * {@link VectorEnvironment#MATCH_REWARD} for a match
+     * @param nSelected number of cards selected on each board
+     * @param firstPairIds pair id of the first card selected on each board
+     * @param lastPairIds pair id of the card selected by this step on each board
+     * @param matching 1 on boards whose selected cards all matched the first one before this step, 0 otherwise
+     */
+    void evaluate(int from, int to, int groupSize, int[] nSelected, int[] firstPairIds, int[] lastPairIds,
+                  int[] matching, int[] outcomes, float[] rewards);
+
+    /**
+     * @return the Vector API evaluator, or the scalar one when the jdk.incubator.vector module was not added to the VM
+     */
+    static BatchEvaluator create() {
+        try {
+            return new VectorBatchEvaluator();
+        } catch (LinkageError e) {
+            return new ScalarBatchEvaluator();
+        }
+    }
+}
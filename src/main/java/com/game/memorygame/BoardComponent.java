@@ -0,0 +1,231 @@
+package com.game.memorygame;
+
+import javafx.scene.Node;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+class BoardComponent extends StackPane {
+    static final Duration DEFAULT_REVEAL_DELAY = Duration.seconds(1);
+
+    /**
+     * Receives every change made to the board, e.g. to keep an overview of it up to date
+     */
+    interface BoardListener extends GameEngine.SlotListener {
+        /**
+         * Called after a new game was dealt, when any slot may have changed
+         */
+        void boardReset();
+    }
+
+    enum RenderMode {
+        /** one node per card; suited to small boards */
+        NODES,
+        /** a single canvas for the whole board; suited to boards with thousands of cards */
+        CANVAS,
+        /** a zoomable, pannable window with nodes for the visible cards only; suited to giant boards */
+        VIEWPORT
+    }
+
+    private final int nCols;
+    private final int nRows;
+    private final int groupSize;
+    private final RenderMode renderMode;
+    private long seed;
+    private int[] pairIds;
+    private CardPalette palette;
+    private GameEngine engine;
+    private BoardRenderer renderer;
+    private final List<BoardListener> boardListeners = new ArrayList<>();
+    private boolean interactionEnabled;
+
+    private final RevealScheduler revealScheduler;
+    private Duration revealDelay = DEFAULT_REVEAL_DELAY;
+    private boolean speedRun;
+
+    BoardComponent() {
+        this(6, 5);
+    }
+
+    BoardComponent(int nCols, int nRows) {
+        this(nCols, nRows, randomSeed());
+    }
+
+    BoardComponent(int nCols, int nRows, long seed) {
+        this(nCols, nRows, seed, RenderMode.NODES);
+    }
+
+    BoardComponent(int nCols, int nRows, long seed, RenderMode renderMode) {
+        this(nCols, nRows, GameEngine.DEFAULT_GROUP_SIZE, seed, renderMode, new FxRevealScheduler());
+    }
+
+    /**
+     * @param groupSize number of matching cards per color (2 for pairs, 3 for triples...);
+     *                  nCols * nRows must be a multiple of it
+     * @param seed seed from which the deal and the card colors are derived; boards of the same size built from
+     *             the same seed are identical
+     * @param revealScheduler runs the end of each turn once the selected cards have been shown long enough
+     */
+    BoardComponent(int nCols, int nRows, int groupSize, long seed, RenderMode renderMode,
+                   RevealScheduler revealScheduler) {
+        super();
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.groupSize = groupSize;
+        this.seed = seed;
+        this.renderMode = renderMode;
+        this.revealScheduler = revealScheduler;
+
+        setStyle("-fx-background-color: blue;");
+        setup();
+        addEventHandler(MouseEvent.MOUSE_CLICKED, this::onMouseClicked);
+        startGame();
+    }
+
+    static long randomSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    int getColumnCount() {
+        return nCols;
+    }
+
+    int getRowCount() {
+        return nRows;
+    }
+
+    GameEngine getEngine() {
+        return engine;
+    }
+
+    CardPalette getPalette() {
+        return palette;
+    }
+
+    void addBoardListener(BoardListener boardListener) {
+        boardListeners.add(boardListener);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Duration getRevealDelay() {
+        return revealDelay;
+    }
+
+    /**
+     * Sets how long a complete selection stays revealed before it is disabled or hidden again,
+     * starting with the next complete selection
+     */
+    public void setRevealDelay(Duration revealDelay) {
+        this.revealDelay = revealDelay;
+    }
+
+    public boolean isSpeedRun() {
+        return speedRun;
+    }
+
+    /**
+     * In speed-run mode a matching selection is disabled as soon as it is complete, and a mismatching one stays
+     * revealed only until the next card is clicked. Cards can be clicked at any time, the reveal delay is not used.
+     */
+    public void setSpeedRun(boolean speedRun) {
+        this.speedRun = speedRun;
+        if (!speedRun && engine.isSelectionComplete()) {
+            // a mismatch left revealed by speed-run mode would otherwise never be hidden
+            revealScheduler.cancel();
+            endTurn();
+        }
+    }
+
+    public boolean isInteractionEnabled() {
+        return interactionEnabled;
+    }
+
+    public void startGame() {
+        interactionEnabled = true;
+    }
+
+    /**
+     * Starts a new game from the given seed on the existing engine and card nodes
+     */
+    public void restart(long seed) {
+        this.seed = seed;
+        revealScheduler.cancel();
+        Dealer.dealForSeed(pairIds, groupSize, seed);
+        engine.reset();
+        palette = new CardPalette(seed);
+        renderer.reset(palette);
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).boardReset();
+        }
+        startGame();
+    }
+
+    private void setup() {
+        pairIds = Dealer.dealForSeed(nCols * nRows, groupSize, seed);
+        palette = new CardPalette(seed);
+
+        engine = new GameEngine(pairIds, groupSize);
+        renderer = switch (renderMode) {
+            case NODES -> new NodeBoardRenderer(nCols, nRows, engine, palette);
+            case CANVAS -> new CanvasBoardRenderer(nCols, nRows, engine, palette);
+            case VIEWPORT -> new ViewportBoardRenderer(nCols, nRows, engine, palette);
+        };
+        engine.setSlotListener(this::slotChanged);
+        getChildren().add(renderer.getNode());
+
+        addEventHandler(CardSelectedEvent.EVENT_TYPE, event -> {
+            if (engine.isSelectionComplete()) {
+                if (!speedRun) return;
+                // hides the mismatch still revealed from the previous turn
+                engine.evaluateSelection();
+            }
+
+            GameEngine.FlipResult result = engine.flip(event.getSelectedSlot());
+            if (result != GameEngine.FlipResult.SELECTION_COMPLETE) return;
+
+            if (speedRun) {
+                if (engine.evaluateCardSelections()) {
+                    engine.evaluateSelection();
+                }
+                return;
+            }
+            interactionEnabled = false;
+            revealScheduler.schedule(revealDelay, this::endTurn);
+        });
+    }
+
+    private void slotChanged(int slot, CardState state) {
+        renderer.slotChanged(slot, state);
+        for (int i = 0; i < boardListeners.size(); i++) {
+            boardListeners.get(i).slotChanged(slot, state);
+        }
+    }
+
+    private void endTurn() {
+        engine.evaluateSelection();
+        interactionEnabled = true;
+    }
+
+    private void onMouseClicked(MouseEvent mouseEvent) {
+        if (!interactionEnabled) return;
+
+        Node rendererNode = renderer.getNode();
+        int slot = renderer.slotAt(
+                mouseEvent.getX() - rendererNode.getLayoutX(),
+                mouseEvent.getY() - rendererNode.getLayoutY());
+        if (slot < 0) return;
+
+        fireEvent(new CardSelectedEvent(slot));
+    }
+}
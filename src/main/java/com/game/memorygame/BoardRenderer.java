@@ -0,0 +1,32 @@
+package com.game.memorygame;
+
+import javafx.scene.Node;
+
+/**
+ * Draws the cards of a {@link GameEngine} board
+ */
+interface BoardRenderer {
+    /**
+     * @return the node displaying the board
+     */
+    Node getNode();
+
+    /**
+     * Updates the card in the given slot after its state changed
+     */
+    void slotChanged(int slot, CardState state);
+
+    /**
+     * Updates every card after the engine was dealt again
+     * @param palette colors of the new game
+     */
+    void reset(CardPalette palette);
+
+    /**
+     * Hit-tests a point against the board geometry
+     * @param x horizontal position, relative to the renderer node
+     * @param y vertical position, relative to the renderer node
+     * @return the slot of the card at the given position, or -1 if there is no card there
+     */
+    int slotAt(double x, double y);
+}
@@ -0,0 +1,12 @@
+package com.game.memorygame;
+
+/**
+ * What every player can see of a board: which cards are hidden, revealed or matched, but not their pair ids
+ */
+interface BoardView {
+    int getNumberOfSlots();
+
+    int getGroupSize();
+
+    CardState getState(int slot);
+}
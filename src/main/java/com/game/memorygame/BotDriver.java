@@ -0,0 +1,61 @@
+package com.game.memorygame;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+
+/**
+ * Lets a bot play on a {@link BoardComponent}. The bot's choices go through the same {@link CardSelectedEvent}
+ * handler as clicks, and it learns about every card revealed on the board, including the ones a person clicks.
+ */
+class BotDriver implements BoardComponent.BoardListener {
+    static final Duration DEFAULT_MOVE_DELAY = Duration.millis(300);
+
+    private final BoardComponent board;
+    private final BotPlayer bot;
+    private final Timeline timeline;
+
+    BotDriver(BoardComponent board, BotPlayer bot) {
+        this(board, bot, DEFAULT_MOVE_DELAY);
+    }
+
+    /**
+     * @param moveDelay time between two cards turned over by the bot
+     */
+    BotDriver(BoardComponent board, BotPlayer bot, Duration moveDelay) {
+        this.board = board;
+        this.bot = bot;
+        this.timeline = new Timeline(new KeyFrame(moveDelay, actionEvent -> move()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+
+        board.addBoardListener(this);
+        bot.reset(board.getEngine());
+    }
+
+    void start() {
+        timeline.play();
+    }
+
+    void stop() {
+        timeline.stop();
+    }
+
+    private void move() {
+        GameEngine engine = board.getEngine();
+        if (!board.isInteractionEnabled() || engine.isGameOver()) return;
+        board.fireEvent(new CardSelectedEvent(bot.chooseSlot(engine)));
+    }
+
+    @Override
+    public void slotChanged(int slot, CardState state) {
+        if (state == CardState.ACTIVE) {
+            bot.cardRevealed(slot, board.getEngine().getPairId(slot));
+        }
+    }
+
+    @Override
+    public void boardReset() {
+        bot.reset(board.getEngine());
+    }
+}
@@ -0,0 +1,33 @@
+package com.game.memorygame;
+
+/**
+ * Plays headless games in which a bot takes every turn, with no reveal delay between turns
+ */
+final class BotGame {
+    private BotGame() {
+    }
+
+    /**
+     * Plays the game dealt on the engine to the end
+     * @param engine engine holding a freshly dealt or reset game
+     * @param bot player choosing every card
+     * @return number of turns the bot needed to match every group; all but nSlots / groupSize of them were mismatches
+     */
+    static int play(GameEngine engine, BotPlayer bot) {
+        bot.reset(engine);
+        int nTurns = 0;
+        while (!engine.isGameOver()) {
+            int slot = bot.chooseSlot(engine);
+            GameEngine.FlipResult result = engine.flip(slot);
+            if (result == GameEngine.FlipResult.IGNORED) {
+                throw new IllegalStateException("bot chose slot " + slot + ", which cannot be selected");
+            }
+            bot.cardRevealed(slot, engine.getPairId(slot));
+            if (result == GameEngine.FlipResult.SELECTION_COMPLETE) {
+                engine.evaluateSelection();
+                nTurns++;
+            }
+        }
+        return nTurns;
+    }
+}
@@ -0,0 +1,22 @@
+package com.game.memorygame;
+
+/**
+ * A player that picks cards on its own. Bots see the board through {@link BoardView} and learn the pair id of a card
+ * only when it is revealed, so they play by the same rules and information as a person clicking the cards.
+ */
+interface BotPlayer {
+    /**
+     * Forgets everything learnt so far; called before every game
+     */
+    void reset(BoardView board);
+
+    /**
+     * @return the slot of a hidden card to turn over next
+     */
+    int chooseSlot(BoardView board);
+
+    /**
+     * Called whenever a card is turned over, whoever chose it
+     */
+    void cardRevealed(int slot, int pairId);
+}
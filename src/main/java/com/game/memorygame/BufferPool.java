@@ -0,0 +1,58 @@
+package com.game.memorygame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Recycles direct buffers of one size, so connections only hold buffers while they have bytes to read or send.
+ * The pool allocates at most a given number of buffers, which bounds the direct memory taken by all its connections.
+ * Not thread-safe: each selector loop has a pool of its own.
+ */
+final class BufferPool {
+    static final int BUFFER_SIZE = 16 * 1024;
+    /** default bound on the buffers of a pool, 64 MiB in all */
+    static final int DEFAULT_MAX_BUFFERS = 4096;
+
+    private final int maxBuffers;
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+    private int nAllocatedBuffers;
+    // takes the messages of connections that are out of buffers, which are never sent
+    private final ByteBuffer discardBuffer = ByteBuffer.allocate(WireProtocol.MAX_MESSAGE_SIZE);
+
+    BufferPool() {
+        this(DEFAULT_MAX_BUFFERS);
+    }
+
+    BufferPool(int maxBuffers) {
+        this.maxBuffers = maxBuffers;
+    }
+
+    /**
+     * @return an empty buffer in write mode, or null if every buffer the pool may allocate is in use
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.pollLast();
+        if (buffer != null) return buffer;
+        if (nAllocatedBuffers == maxBuffers) return null;
+        nAllocatedBuffers++;
+        return ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    void release(ByteBuffer buffer) {
+        buffers.addLast(buffer.clear());
+    }
+
+    /**
+     * @return an empty buffer with room for one message, overwritten by the next call
+     */
+    ByteBuffer discardBuffer() {
+        return discardBuffer.clear();
+    }
+
+    /**
+     * @return number of buffers allocated so far, whether in use or pooled
+     */
+    int getNumberOfAllocatedBuffers() {
+        return nAllocatedBuffers;
+    }
+}
@@ -0,0 +1,142 @@
+package com.game.memorygame;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+
+/**
+ * Draws the whole board onto a single {@link Canvas}. Only the cards whose state changed since the last pulse
+ * are repainted, unless the canvas was resized.
+ */
+class CanvasBoardRenderer extends Region implements BoardRenderer {
+    private static final double CARD_INSET = 4.0;
+    private static final Color BOARD_COLOR = Color.BLUE;
+
+    private final int nCols;
+    private final int nRows;
+    private final GameEngine engine;
+    private CardPalette palette;
+    private final Canvas canvas = new Canvas();
+
+    private int[] dirtySlots = new int[16];
+    private int nDirty;
+    private boolean repaintAll = true;
+
+    CanvasBoardRenderer(int nCols, int nRows, GameEngine engine, CardPalette palette) {
+        super();
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.engine = engine;
+        this.palette = palette;
+
+        getChildren().add(canvas);
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void slotChanged(int slot, CardState state) {
+        if (!repaintAll) {
+            if (nDirty == dirtySlots.length) {
+                if (nDirty >= engine.getNumberOfSlots() / 4) {
+                    repaintAll = true;
+                } else {
+                    dirtySlots = Arrays.copyOf(dirtySlots, nDirty * 2);
+                }
+            }
+            if (!repaintAll) {
+                dirtySlots[nDirty++] = slot;
+            }
+        }
+        // repaints on the next pulse, together with any other change made until then
+        setNeedsLayout(true);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            repaintAll = true;
+        }
+        repaint();
+    }
+
+    private void repaint() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        if (repaintAll) {
+            gc.setFill(BOARD_COLOR);
+            gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            for (int slot = 0; slot < engine.getNumberOfSlots(); slot++) {
+                paintCard(gc, slot);
+            }
+            repaintAll = false;
+        } else {
+            for (int i = 0; i < nDirty; i++) {
+                paintCard(gc, dirtySlots[i]);
+            }
+        }
+        nDirty = 0;
+    }
+
+    private void paintCard(GraphicsContext gc, int slot) {
+        int col = slot / nRows;
+        int row = slot % nRows;
+        double x0 = cellX(col);
+        double y0 = cellY(row);
+        double x1 = cellX(col + 1);
+        double y1 = cellY(row + 1);
+        double inset = inset();
+
+        gc.setFill(BOARD_COLOR);
+        gc.fillRect(x0, y0, x1 - x0, y1 - y0);
+        gc.setFill(CardBackgrounds.colorOf(Card.stateToArgb(engine.getState(slot), engine.getPairId(slot), palette)));
+        gc.fillRect(x0 + inset, y0 + inset, x1 - x0 - 2 * inset, y1 - y0 - 2 * inset);
+    }
+
+    @Override
+    public void reset(CardPalette palette) {
+        this.palette = palette;
+        repaintAll = true;
+        nDirty = 0;
+        setNeedsLayout(true);
+    }
+
+    @Override
+    public int slotAt(double x, double y) {
+        int col = (int) (x * nCols / canvas.getWidth());
+        int row = (int) (y * nRows / canvas.getHeight());
+        if (col < 0 || col >= nCols || row < 0 || row >= nRows) return -1;
+
+        // clicks on the gap around a card do not select it
+        double inset = inset();
+        if (x < cellX(col) + inset || x >= cellX(col + 1) - inset) return -1;
+        if (y < cellY(row) + inset || y >= cellY(row + 1) - inset) return -1;
+        return (col * nRows) + row;
+    }
+
+    private double cellX(int col) {
+        return Math.floor(col * canvas.getWidth() / nCols);
+    }
+
+    private double cellY(int row) {
+        return Math.floor(row * canvas.getHeight() / nRows);
+    }
+
+    /**
+     * @return the gap around each card, shrunk on boards whose cells are too small for the usual gap
+     */
+    private double inset() {
+        double cellSize = Math.min(canvas.getWidth() / nCols, canvas.getHeight() / nRows);
+        return Math.min(CARD_INSET, Math.floor(cellSize / 8));
+    }
+}
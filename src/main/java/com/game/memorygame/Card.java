@@ -0,0 +1,31 @@
+package com.game.memorygame;
+
+import javafx.scene.layout.Region;
+
+/**
+ * Stateless view of one slot; the state and pair id of the slot are kept by {@link GameEngine}
+ */
+class Card extends Region {
+    /** {@link javafx.scene.paint.Color#ANTIQUEWHITE} as packed ARGB */
+    static final int INACTIVE_ARGB = 0xFFFAEBD7;
+    /** {@link javafx.scene.paint.Color#GRAY} as packed ARGB */
+    static final int DISABLED_ARGB = 0xFF808080;
+
+    /**
+     * @return the color a card is shown with, as packed 8-bit ARGB
+     */
+    static int stateToArgb(CardState cardState, int pairId, CardPalette palette) {
+        return switch (cardState) {
+            case ACTIVE -> palette.argbOf(pairId);
+            case INACTIVE -> INACTIVE_ARGB;
+            case DISABLED -> DISABLED_ARGB;
+        };
+    }
+
+    /**
+     * Shows the card of the given pair in the given state
+     */
+    public void show(CardState cardState, int pairId, CardPalette palette) {
+        setBackground(CardBackgrounds.of(stateToArgb(cardState, pairId, palette)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.memorygame;
+
+import javafx.geometry.Insets;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundFill;
+import javafx.scene.layout.CornerRadii;
+import javafx.scene.paint.Color;
+
+/**
+ * Shared cache of the immutable {@link Background}s used by {@link Card}s, so that changing the state of a card
+ * reuses an existing instance instead of allocating a new one. Backgrounds are looked up by packed ARGB color, so
+ * showing a card needs no {@link Color} instance either. Only meant to be used from the FX application thread.
+ */
+final class CardBackgrounds {
+    static final int MAX_CACHED_BACKGROUNDS = 4096;
+
+    // the backgrounds of the card states are kept out of the table, so no number of pair colors can evict them
+    private static final Background INACTIVE = create(Card.INACTIVE_ARGB);
+    private static final Background DISABLED = create(Card.DISABLED_ARGB);
+    // direct-mapped: a color evicts the one cached in its entry, which bounds the cache without any bookkeeping
+    private static final int INDEX_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(MAX_CACHED_BACKGROUNDS);
+    private static final int[] COLORS = new int[MAX_CACHED_BACKGROUNDS];
+    private static final Background[] BACKGROUNDS = new Background[MAX_CACHED_BACKGROUNDS];
+    private static long allocationCount;
+
+    private CardBackgrounds() {
+    }
+
+    /**
+     * @param argb fill color of the background, as packed 8-bit ARGB
+     * @return a background filled with the given color, shared with every other caller asking for that color
+     */
+    static Background of(int argb) {
+        if (argb == Card.INACTIVE_ARGB) return INACTIVE;
+        if (argb == Card.DISABLED_ARGB) return DISABLED;
+        int index = (argb * 0x9E3779B9) >>> INDEX_SHIFT;
+        Background background = BACKGROUNDS[index];
+        if (background == null || COLORS[index] != argb) {
+            background = create(argb);
+            COLORS[index] = argb;
+            BACKGROUNDS[index] = background;
+            allocationCount++;
+        }
+        return background;
+    }
+
+    private static Background create(int argb) {
+        Color color = Color.rgb((argb >>> 16) & 0xFF, (argb >>> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0);
+        return new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY));
+    }
+
+    /**
+     * @param argb color as packed 8-bit ARGB
+     * @return the color, shared with the background of that color, e.g. to fill a canvas without allocating
+     */
+    static Color colorOf(int argb) {
+        return (Color) of(argb).getFills().get(0).getFill();
+    }
+
+    /**
+     * @return number of backgrounds allocated so far because they were missing from the cache
+     */
+    static long getAllocationCount() {
+        return allocationCount;
+    }
+}
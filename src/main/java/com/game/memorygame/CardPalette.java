@@ -0,0 +1,35 @@
+package com.game.memorygame;
+
+/**
+ * Maps pair ids to the colors shown when a card is revealed. Colors are derived from the pair id on demand,
+ * so no color is stored per pair.
+ */
+final class CardPalette {
+    private static final double CHANNEL_SCALE = 1.0 / (1 << 21);
+
+    private final long seed;
+
+    CardPalette(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return the color of a pair as packed 8-bit ARGB; needs no JavaFX classes, so the headless server can send
+     *         colors too, and allocates nothing
+     */
+    int argbOf(int pairId) {
+        long bits = Xoshiro256PlusPlus.mix64(seed ^ Xoshiro256PlusPlus.mix64(pairId));
+        return 0xFF000000
+                | (channel8(bits) << 16) // not too bright and not too dark
+                | (channel8(bits >>> 21) << 8)
+                | channel8(bits >>> 42);
+    }
+
+    private static int channel8(long bits) {
+        return (int) Math.round(channel(bits) * 255);
+    }
+
+    private static double channel(long bits) {
+        return ((bits & 0x1FFFFF) * CHANNEL_SCALE / 2) + 0.375;
+    }
+}
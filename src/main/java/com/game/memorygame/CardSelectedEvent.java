@@ -0,0 +1,18 @@
+package com.game.memorygame;
+
+import javafx.event.Event;
+import javafx.event.EventType;
+
+class CardSelectedEvent extends Event {
+    public static final EventType<? extends CardSelectedEvent> EVENT_TYPE = new EventType<>(Event.ANY, "CARD_SELECTED");
+    private final int selectedSlot;
+
+    public CardSelectedEvent(int slot) {
+        super(EVENT_TYPE);
+        selectedSlot = slot;
+    }
+
+    public int getSelectedSlot() {
+        return selectedSlot;
+    }
+}
@@ -0,0 +1,18 @@
+package com.game.memorygame;
+
+enum CardState {
+    ACTIVE,
+    INACTIVE,
+    DISABLED;
+
+    private static final CardState[] VALUES = values();
+
+    /**
+     * Looks up a state by its ordinal without allocating a copy of {@link #values()}
+     * @param ordinal ordinal of the state, as stored by {@link GameEngine}
+     * @return the state with the given ordinal
+     */
+    static CardState fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
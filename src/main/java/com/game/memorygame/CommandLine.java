@@ -0,0 +1,50 @@
+package com.game.memorygame;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Argument parsing shared by the command-line entry points
+ */
+final class CommandLine {
+    private CommandLine() {
+    }
+
+    /**
+     * Reads options given as {@code --name value} pairs
+     * @param names names of the options the command accepts, with their leading dashes
+     * @return value of each option that was given, by name
+     * @throws IllegalArgumentException if an option is unknown or has no value
+     */
+    static Map<String, String> parseOptions(String[] args, String... names) {
+        List<String> accepted = List.of(names);
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!accepted.contains(args[i])) throw new IllegalArgumentException("unknown option: " + args[i]);
+            if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + args[i]);
+            options.put(args[i], args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * @param size board size written as columns x rows, e.g. {@code 6x5}
+     */
+    static int columns(String size) {
+        return Integer.parseInt(size.substring(0, separatorOf(size)));
+    }
+
+    /**
+     * @param size board size written as columns x rows, e.g. {@code 6x5}
+     */
+    static int rows(String size) {
+        return Integer.parseInt(size.substring(separatorOf(size) + 1));
+    }
+
+    private static int separatorOf(String size) {
+        int separator = size.indexOf('x');
+        if (separator < 0) throw new IllegalArgumentException("board size is not columns x rows: " + size);
+        return separator;
+    }
+}
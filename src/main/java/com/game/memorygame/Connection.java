@@ -0,0 +1,158 @@
+package com.game.memorygame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+
+/**
+ * A non-blocking TCP connection served by a selector loop. Its unfinished input and unsent output are kept in buffers
+ * borrowed from a {@link BufferPool}, which are returned as soon as they are empty, so idle connections hold none.
+ * <p>
+ * A peer that sends requests faster than it reads the replies is stopped being read from while it has more than
+ * {@link #MAX_OUTPUT_BUFFERS_WHILE_READING} buffers of output to take, and read again once it took enough of them.
+ * Should its output still grow past {@link #MAX_OUTPUT_BUFFERS}, say because of the games it plays with others, or
+ * should the pool run out of buffers, the connection overflows: what it is sent from then on is dropped and it has to
+ * be closed.
+ */
+final class Connection {
+    /** most buffers of unsent output a connection may have and still be read from */
+    static final int MAX_OUTPUT_BUFFERS_WHILE_READING = 4;
+    /** most buffers of unsent output a connection may have before it overflows */
+    static final int MAX_OUTPUT_BUFFERS = 64;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final BufferPool pool;
+    // bytes received and not decoded yet, in write mode, or null when there are none
+    private ByteBuffer input;
+    // bytes waiting to be sent, each buffer in write mode; every buffer but the last is full enough to be sent
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+    private int interestOps = SelectionKey.OP_READ;
+    private boolean flushQueued;
+    private boolean overflowed;
+
+    /**
+     * @param key registration of the channel with the selector for reading, used to ask for writability
+     */
+    Connection(SocketChannel channel, SelectionKey key, BufferPool pool) {
+        this.channel = channel;
+        this.key = key;
+        this.pool = pool;
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Reads what the peer sent since the last read
+     * @return every byte received and not consumed yet, in read mode, or null if the peer closed the connection;
+     *         the bytes left unconsumed have to be handed back with {@link #keepUnreadInput()}
+     * @throws IOException also if the pool is out of buffers to read into
+     */
+    ByteBuffer read() throws IOException {
+        if (input == null) {
+            input = pool.acquire();
+            if (input == null) throw new IOException("out of buffers");
+        }
+        if (channel.read(input) < 0) return null;
+        return input.flip();
+    }
+
+    /**
+     * Keeps the bytes of the buffer returned by {@link #read()} that were not consumed, such as an incomplete message,
+     * in front of the next read
+     */
+    void keepUnreadInput() {
+        if (input.hasRemaining()) {
+            input.compact();
+        } else {
+            pool.release(input);
+            input = null;
+        }
+    }
+
+    /**
+     * @return a buffer in write mode with room for at least one message, to put it after the output not sent yet;
+     *         once the connection {@link #hasOverflowed() overflowed}, a buffer whose content is never sent
+     */
+    ByteBuffer outputBuffer() {
+        if (overflowed) return pool.discardBuffer();
+        ByteBuffer last = output.peekLast();
+        if (last == null || last.remaining() < WireProtocol.MAX_MESSAGE_SIZE) {
+            last = output.size() < MAX_OUTPUT_BUFFERS ? pool.acquire() : null;
+            if (last == null) {
+                overflowed = true;
+                return pool.discardBuffer();
+            }
+            output.addLast(last);
+        }
+        return last;
+    }
+
+    /**
+     * @return whether messages were dropped because the output grew too large, in which case the connection has to be
+     *         closed
+     */
+    boolean hasOverflowed() {
+        return overflowed;
+    }
+
+    boolean hasPendingOutput() {
+        return !output.isEmpty();
+    }
+
+    /**
+     * Marks the connection as having output to flush at the end of the selector loop iteration
+     * @return false if it was already marked since its last flush
+     */
+    boolean queueFlush() {
+        if (flushQueued) return false;
+        flushQueued = true;
+        return true;
+    }
+
+    /**
+     * Sends as much of the queued output as the socket takes, asking the selector to tell when it can take the rest,
+     * and to stop or resume reading depending on how much is left
+     */
+    void flush() throws IOException {
+        flushQueued = false;
+        if (!channel.isOpen()) return;
+        while (!output.isEmpty()) {
+            ByteBuffer head = output.peekFirst().flip();
+            channel.write(head);
+            if (head.hasRemaining()) {
+                head.compact();
+                break;
+            }
+            pool.release(output.pollFirst());
+        }
+        int ops = (output.size() <= MAX_OUTPUT_BUFFERS_WHILE_READING ? SelectionKey.OP_READ : 0)
+                | (hasPendingOutput() ? SelectionKey.OP_WRITE : 0);
+        if (interestOps != ops) {
+            interestOps = ops;
+            key.interestOps(ops);
+        }
+    }
+
+    /**
+     * Closes the channel and gives the buffers back to the pool
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing left to do with it
+        }
+        if (input != null) {
+            pool.release(input);
+            input = null;
+        }
+        while (!output.isEmpty()) {
+            pool.release(output.pollFirst());
+        }
+    }
+}
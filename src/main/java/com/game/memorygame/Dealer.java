@@ -0,0 +1,207 @@
+package com.game.memorygame;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Deals pair ids onto the slots of a board
+ */
+final class Dealer {
+    /** boards with at least this many cards are dealt in parallel by {@link #dealForSeed} */
+    static final int PARALLEL_DEALING_THRESHOLD = 1 << 20;
+    /** ranges at most this long are shuffled by a single task */
+    static final int SEQUENTIAL_SHUFFLE_THRESHOLD = 1 << 16;
+
+    private Dealer() {
+    }
+
+    /**
+     * Derives the deal of a game from its seed. The generator, the bounded draws and both shuffles are implemented
+     * here rather than borrowed from the JDK, so a seed maps to the same deal on every JVM version and the seed alone
+     * is enough to store, share or replay a game.
+     * @param nCards number of slots on the board
+     * @param groupSize number of cards sharing each pair id
+     * @param seed seed of the game
+     * @return pair id of each slot
+     */
+    static int[] dealForSeed(int nCards, int groupSize, long seed) {
+        int[] pairIds = new int[nCards];
+        dealForSeed(pairIds, groupSize, seed);
+        return pairIds;
+    }
+
+    /**
+     * Deals like {@link #dealForSeed(int, int, long)} into an existing array, overwriting its contents
+     */
+    static void dealForSeed(int[] pairIds, int groupSize, long seed) {
+        if (pairIds.length >= PARALLEL_DEALING_THRESHOLD) {
+            dealParallel(pairIds, groupSize, seed);
+        } else {
+            deal(pairIds, groupSize, new Xoshiro256PlusPlus(seed));
+        }
+    }
+
+    /**
+     * Deals nCards / groupSize distinct pair ids, each repeated groupSize times, in a uniformly random order
+     * @param nCards number of slots on the board
+     * @param groupSize number of cards sharing each pair id
+     * @param random source of randomness for the shuffle
+     * @return pair id of each slot
+     */
+    static int[] deal(int nCards, int groupSize, RandomGenerator random) {
+        int[] pairIds = new int[nCards];
+        deal(pairIds, groupSize, random);
+        return pairIds;
+    }
+
+    static void deal(int[] pairIds, int groupSize, RandomGenerator random) {
+        deal(pairIds, 0, pairIds.length, groupSize, random);
+    }
+
+    /**
+     * Deals a board into pairIds[from, to), leaving the rest of the array alone; the board gets the same deal as an
+     * array of its own would from the same random sequence
+     */
+    static void deal(int[] pairIds, int from, int to, int groupSize, RandomGenerator random) {
+        checkGroupSize(to - from, groupSize);
+        for (int i = from; i < to; i++) {
+            pairIds[i] = (i - from) / groupSize;
+        }
+        shuffle(pairIds, from, to, random);
+    }
+
+    /**
+     * Deals like {@link #deal(int, int, RandomGenerator)}, splitting the work across the common ForkJoinPool.
+     * The deal depends only on the arguments, not on the number of threads or how the tasks get scheduled.
+     * @param nCards number of slots on the board
+     * @param groupSize number of cards sharing each pair id
+     * @param seed seed from which the random stream of every task is derived
+     * @return pair id of each slot
+     */
+    static int[] dealParallel(int nCards, int groupSize, long seed) {
+        int[] pairIds = new int[nCards];
+        dealParallel(pairIds, groupSize, seed);
+        return pairIds;
+    }
+
+    static void dealParallel(int[] pairIds, int groupSize, long seed) {
+        checkGroupSize(pairIds.length, groupSize);
+        ForkJoinPool.commonPool().invoke(new MergeShuffleTask(pairIds, groupSize, 0, pairIds.length, seed));
+    }
+
+    private static void checkGroupSize(int nCards, int groupSize) {
+        if (nCards % groupSize != 0) {
+            throw new IllegalArgumentException(nCards + " cards cannot be dealt in groups of " + groupSize);
+        }
+    }
+
+    /**
+     * Fisher-Yates shuffle
+     */
+    static void shuffle(int[] values, RandomGenerator random) {
+        shuffle(values, 0, values.length, random);
+    }
+
+    /**
+     * Fisher-Yates shuffle of values[from, to)
+     */
+    static void shuffle(int[] values, int from, int to, RandomGenerator random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + nextInt(random, i - from + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * Draws a uniformly distributed int in [0, bound) with Lemire's multiply-shift method, whose result depends only
+     * on the values returned by {@link RandomGenerator#nextInt()}
+     */
+    static int nextInt(RandomGenerator random, int bound) {
+        long m = (random.nextInt() & 0xFFFFFFFFL) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (random.nextInt() & 0xFFFFFFFFL) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * MergeShuffle (Bacher, Bodini, Hollender and Lumbroso, 2015): both halves of the range are dealt and shuffled
+     * in parallel, then merged by repeatedly drawing from either half with a fair coin, which keeps the result
+     * uniformly distributed. Each task seeds its own generator from its position in the task tree.
+     */
+    private static final class MergeShuffleTask extends RecursiveAction {
+        private final int[] pairIds;
+        private final int groupSize;
+        private final int from;
+        private final int to;
+        private final long seed;
+
+        MergeShuffleTask(int[] pairIds, int groupSize, int from, int to, long seed) {
+            this.pairIds = pairIds;
+            this.groupSize = groupSize;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_SHUFFLE_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    pairIds[i] = i / groupSize;
+                }
+                shuffle(pairIds, from, to, new Xoshiro256PlusPlus(seed));
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new MergeShuffleTask(pairIds, groupSize, from, mid, Xoshiro256PlusPlus.mix64(seed + Xoshiro256PlusPlus.GOLDEN_GAMMA)),
+                    new MergeShuffleTask(pairIds, groupSize, mid, to, Xoshiro256PlusPlus.mix64(seed + 2 * Xoshiro256PlusPlus.GOLDEN_GAMMA)));
+            merge(mid, new Xoshiro256PlusPlus(seed));
+        }
+
+        private void merge(int mid, RandomGenerator random) {
+            int i = from;
+            int j = mid;
+            long coins = 0;
+            int nCoins = 0;
+            while (true) {
+                if (nCoins == 0) {
+                    coins = random.nextLong();
+                    nCoins = Long.SIZE;
+                }
+                boolean takeFromSecondHalf = (coins & 1) != 0;
+                coins >>>= 1;
+                nCoins--;
+
+                if (takeFromSecondHalf) {
+                    if (j == to) break;
+                    swap(i, j);
+                    j++;
+                } else if (i == j) {
+                    break;
+                }
+                i++;
+            }
+            // one half ran out, the cards left over are inserted at uniformly random positions
+            for (; i < to; i++) {
+                swap(i, from + nextInt(random, i - from + 1));
+            }
+        }
+
+        private void swap(int i, int j) {
+            int value = pairIds[i];
+            pairIds[i] = pairIds[j];
+            pairIds[j] = value;
+        }
+    }
+}
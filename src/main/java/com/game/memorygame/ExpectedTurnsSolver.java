@@ -0,0 +1,174 @@
+package com.game.memorygame;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the exact expected number of turns needed to clear a board of pairs under optimal play with perfect
+ * memory, by dynamic programming over (unknown cards, known unmatched cards) states. Results are persisted to disk so
+ * they are only ever computed once.
+ * <p>
+ * E(u, k) is the expected number of remaining turns with u cards never seen and k seen cards whose partner has not
+ * been seen, leaving (u - k) / 2 pairs of which no card was seen. A turn starts by turning over an unseen card, since
+ * starting with a seen one cannot help. With probability k / u it completes a known pair: 1 + E(u - 1, k - 1).
+ * Otherwise the second card is either a seen card, wasting the turn but revealing nothing more: 1 + E(u - 1, k + 1),
+ * or another unseen card, whichever is better in expectation. That card is the partner with probability 1 / (u - 1):
+ * 1 + E(u - 2, k); the partner of a seen card with probability k / (u - 1), which is matched on the next turn:
+ * 2 + E(u - 2, k); and of a fresh pair otherwise: 1 + E(u - 2, k + 2). The game with n pairs starts at E(2n, 0).
+ * <p>
+ * Layer u only depends on layers u - 1 and u - 2, so the table is filled one layer at a time, the states of large
+ * layers in parallel, keeping three layers in memory.
+ * <p>
+ * Usage: {@code java -cp target/classes com.game.memorygame.ExpectedTurnsSolver [--cache FILE] 6x5 100x100 ...}
+ */
+public final class ExpectedTurnsSolver {
+    static final Path DEFAULT_CACHE_FILE = Path.of(System.getProperty("user.home"), ".memorygame", "expected-turns.bin");
+
+    private static final int FILE_MAGIC = 0x4d475445; // "MGTE"
+    /** layers with at least this many states are solved in parallel */
+    private static final int PARALLEL_LAYER_SIZE = 2048;
+
+    private final Path cacheFile;
+    private double[] expectedTurnsByPairs = new double[] {0};
+
+    ExpectedTurnsSolver(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @return expected number of turns to clear a board of nCols x nRows cards under optimal perfect-memory play
+     * @throws IllegalArgumentException unless the cards are dealt in pairs, which is all the solver models
+     */
+    double expectedTurns(int nCols, int nRows, int groupSize) throws IOException {
+        if (groupSize != 2) {
+            throw new IllegalArgumentException("only boards of pairs can be solved, not groups of " + groupSize);
+        }
+        if (nCols <= 0 || nRows <= 0 || ((long) nCols * nRows) % 2 != 0) {
+            throw new IllegalArgumentException(nCols + "x" + nRows + " boards cannot be dealt in pairs");
+        }
+        return expectedTurns(Math.toIntExact((long) nCols * nRows / 2));
+    }
+
+    /**
+     * @return expected number of turns to clear a board of nPairs pairs under optimal perfect-memory play
+     */
+    synchronized double expectedTurns(int nPairs) throws IOException {
+        if (nPairs < 0) {
+            throw new IllegalArgumentException("negative number of pairs: " + nPairs);
+        }
+        if (nPairs >= expectedTurnsByPairs.length) {
+            load();
+        }
+        if (nPairs >= expectedTurnsByPairs.length) {
+            expectedTurnsByPairs = solve(nPairs);
+            save();
+        }
+        return expectedTurnsByPairs[nPairs];
+    }
+
+    /**
+     * @return the expected number of turns for every number of pairs from 0 to maxPairs
+     */
+    static double[] solve(int maxPairs) {
+        double[] expectedTurnsByPairs = new double[maxPairs + 1];
+        // layers[u % 3][k] holds E(u, k)
+        double[][] layers = {new double[2 * maxPairs + 1], new double[2 * maxPairs + 1], new double[2 * maxPairs + 1]};
+        for (int u = 1; u <= 2 * maxPairs; u++) {
+            double[] layer = layers[u % 3];
+            double[] previous = layers[(u - 1) % 3];
+            double[] beforePrevious = layers[(u + 1) % 3];
+            int unknown = u;
+            // only states with an even number of cards of fully unknown pairs exist
+            IntStream states = IntStream.rangeClosed(0, u / 2).map(i -> unknown - (2 * i));
+            if (u >= PARALLEL_LAYER_SIZE) {
+                states = states.parallel();
+            }
+            states.forEach(k -> layer[k] = expectedTurns(unknown, k, previous, beforePrevious));
+            if (u % 2 == 0) {
+                expectedTurnsByPairs[u / 2] = layer[0];
+            }
+        }
+        return expectedTurnsByPairs;
+    }
+
+    private static double expectedTurns(int u, int k, double[] previous, double[] beforePrevious) {
+        double expected = 0;
+        if (k > 0) {
+            expected += ((double) k / u) * (1 + previous[k - 1]);
+        }
+        if (u > k) {
+            double secondCardUnseen = (1 + beforePrevious[k]) / (u - 1)
+                    + ((double) k / (u - 1)) * (2 + beforePrevious[k])
+                    + (u - 2 - k > 0 ? ((double) (u - 2 - k) / (u - 1)) * (1 + beforePrevious[k + 2]) : 0);
+            double best = k > 0 ? Math.min(secondCardUnseen, 1 + previous[k + 1]) : secondCardUnseen;
+            expected += ((double) (u - k) / u) * best;
+        }
+        return expected;
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(cacheFile)) return;
+        try (InputStream in = Files.newInputStream(cacheFile);
+             DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            if (data.readInt() != FILE_MAGIC) {
+                throw new IOException(cacheFile + " is not an expected turns cache");
+            }
+            double[] loaded = new double[data.readInt()];
+            for (int i = 0; i < loaded.length; i++) {
+                loaded[i] = data.readDouble();
+            }
+            if (loaded.length > expectedTurnsByPairs.length) {
+                expectedTurnsByPairs = loaded;
+            }
+        }
+    }
+
+    private void save() throws IOException {
+        Path directory = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // written next to the cache and moved over it, so a crash never leaves a truncated cache behind
+        Path temporaryFile = Files.createTempFile(directory, "expected-turns", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temporaryFile);
+             DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+            data.writeInt(FILE_MAGIC);
+            data.writeInt(expectedTurnsByPairs.length);
+            for (double expectedTurns : expectedTurnsByPairs) {
+                data.writeDouble(expectedTurns);
+            }
+        }
+        Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path cacheFile = DEFAULT_CACHE_FILE;
+        int first = 0;
+        if (args.length >= 2 && args[0].equals("--cache")) {
+            cacheFile = Path.of(args[1]);
+            first = 2;
+        }
+        String[] sizes = Arrays.copyOfRange(args, first, args.length);
+        if (sizes.length == 0) {
+            sizes = new String[] {"6x5"};
+        }
+
+        ExpectedTurnsSolver solver = new ExpectedTurnsSolver(cacheFile);
+        for (String size : sizes) {
+            int nCols = CommandLine.columns(size);
+            int nRows = CommandLine.rows(size);
+            double expectedTurns = solver.expectedTurns(nCols, nRows, GameEngine.DEFAULT_GROUP_SIZE);
+            System.out.printf(Locale.ROOT, "%s: %d pairs, %.4f expected turns%n",
+                    size, nCols * nRows / 2, expectedTurns);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.game.memorygame;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Schedules on the JavaFX animation clock, reusing a single {@link PauseTransition}
+ */
+class FxRevealScheduler implements RevealScheduler {
+    private final PauseTransition pauseTransition = new PauseTransition();
+    private Runnable task;
+
+    FxRevealScheduler() {
+        pauseTransition.setOnFinished(actionEvent -> {
+            Runnable finishedTask = task;
+            task = null;
+            finishedTask.run();
+        });
+    }
+
+    @Override
+    public void schedule(Duration delay, Runnable task) {
+        this.task = task;
+        pauseTransition.setDuration(delay);
+        pauseTransition.playFromStart();
+    }
+
+    @Override
+    public void cancel() {
+        pauseTransition.stop();
+        task = null;
+    }
+}
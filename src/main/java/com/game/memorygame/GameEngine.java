@@ -0,0 +1,154 @@
+package com.game.memorygame;
+
+import java.util.Arrays;
+
+/**
+ * Headless implementation of the game rules. The board is held as primitive arrays indexed by slot,
+ * so games can be played without starting the JavaFX toolkit.
+ */
+class GameEngine implements BoardView {
+    /** number of matching cards per pair id, and so of cards selected per turn, unless a game asks otherwise */
+    static final int DEFAULT_GROUP_SIZE = 2;
+
+    enum FlipResult {
+        /** the slot cannot be selected right now */
+        IGNORED,
+        /** the slot was selected and more cards may be selected */
+        SELECTED,
+        /** the slot was selected and the selection must now be evaluated */
+        SELECTION_COMPLETE
+    }
+
+    @FunctionalInterface
+    interface SlotListener {
+        void slotChanged(int slot, CardState state);
+    }
+
+    private static final byte ACTIVE = (byte) CardState.ACTIVE.ordinal();
+    private static final byte INACTIVE = (byte) CardState.INACTIVE.ordinal();
+    private static final byte DISABLED = (byte) CardState.DISABLED.ordinal();
+
+    private final int[] pairIds;
+    private final byte[] states;
+    private final int groupSize;
+    // a slot is selected exactly when its state is ACTIVE, so this buffer is only needed to end the turn
+    private final int[] selectedSlots;
+    private int nSelected;
+    private boolean selectionMatching;
+    private int nDisabled;
+    private SlotListener slotListener = (slot, state) -> {};
+
+    /**
+     * @param pairIds pair id of the card in each slot; slots holding the same pair id match each other.
+     *                The array is used as is, so a new deal can be written into it before calling {@link #reset()}
+     */
+    GameEngine(int[] pairIds) {
+        this(pairIds, DEFAULT_GROUP_SIZE);
+    }
+
+    /**
+     * @param pairIds pair id of the card in each slot, as for {@link #GameEngine(int[])}
+     * @param groupSize number of cards sharing each pair id: 2 for pairs, 3 for triples, and so on;
+     *                  this many cards are selected per turn
+     */
+    GameEngine(int[] pairIds, int groupSize) {
+        if (groupSize < 2) {
+            throw new IllegalArgumentException("group size must be at least 2, got " + groupSize);
+        }
+        this.pairIds = pairIds;
+        this.states = new byte[pairIds.length];
+        this.groupSize = groupSize;
+        this.selectedSlots = new int[groupSize];
+        reset();
+    }
+
+    /**
+     * Hides every card and clears the selection, starting a new game on the current contents of the pair id array.
+     * The slot listener is not notified.
+     */
+    void reset() {
+        Arrays.fill(states, INACTIVE);
+        nSelected = 0;
+        nDisabled = 0;
+    }
+
+    void setSlotListener(SlotListener slotListener) {
+        this.slotListener = slotListener;
+    }
+
+    @Override
+    public int getGroupSize() {
+        return groupSize;
+    }
+
+    @Override
+    public int getNumberOfSlots() {
+        return pairIds.length;
+    }
+
+    int getPairId(int slot) {
+        return pairIds[slot];
+    }
+
+    @Override
+    public CardState getState(int slot) {
+        return CardState.fromOrdinal(states[slot]);
+    }
+
+    boolean isSelectionComplete() {
+        return nSelected == groupSize;
+    }
+
+    boolean isGameOver() {
+        return nDisabled == pairIds.length;
+    }
+
+    /**
+     * Selects the card in the given slot, revealing it
+     * @param slot slot of the card to select
+     * @return whether the card was selected and whether the selection is ready to be evaluated
+     */
+    FlipResult flip(int slot) {
+        if (isSelectionComplete()) return FlipResult.IGNORED;
+        if (states[slot] != INACTIVE) return FlipResult.IGNORED;
+
+        setState(slot, ACTIVE);
+        if (nSelected == 0) {
+            selectionMatching = true;
+        } else if (pairIds[slot] != pairIds[selectedSlots[0]]) {
+            selectionMatching = false;
+        }
+        selectedSlots[nSelected++] = slot;
+        return isSelectionComplete() ? FlipResult.SELECTION_COMPLETE : FlipResult.SELECTED;
+    }
+
+    /**
+     * Disables the selected cards if they all share a pair id, otherwise hides them again,
+     * then clears the selection
+     * @return whether the selected cards matched
+     */
+    boolean evaluateSelection() {
+        boolean isMatch = evaluateCardSelections();
+        byte outcome = isMatch ? DISABLED : INACTIVE;
+        for (int i = 0; i < nSelected; i++) {
+            setState(selectedSlots[i], outcome);
+        }
+        if (isMatch) {
+            nDisabled += nSelected;
+        }
+        nSelected = 0;
+        return isMatch;
+    }
+
+    /**
+     * @return whether the selected cards all share a pair id, without ending the turn
+     */
+    boolean evaluateCardSelections() {
+        return selectionMatching;
+    }
+
+    private void setState(int slot, byte state) {
+        states[slot] = state;
+        slotListener.slotChanged(slot, CardState.fromOrdinal(state));
+    }
+}
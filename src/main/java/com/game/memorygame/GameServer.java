@@ -0,0 +1,380 @@
+package com.game.memorygame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hosts many concurrent games for clients connecting over TCP. A single thread serves every connection from a
+ * non-blocking selector loop, so the number of games is bounded by memory rather than by threads.
+ * <p>
+ * Clients create, join and play games with the binary messages of {@link WireProtocol}. Reading, decoding, playing
+ * and encoding a request allocate nothing: buffers come from a pool and games are found by id in an array. Replies are
+ * batched: everything a connection is sent while the selector loop handles the ready connections goes out in a single
+ * write at the end of the iteration.
+ * <p>
+ * So that no client can exhaust the memory of the server, games have at most {@link ServerGame#MAX_CARDS} cards and
+ * {@link ServerGame#MAX_PLAYERS} players, and a connection may play at most {@link #MAX_GAMES_PER_CONNECTION} games
+ * holding {@link #MAX_CARDS_PER_CONNECTION} cards in all at once. Output is bounded the same way: a client is no
+ * longer read from while it leaves too many replies unread, is disconnected if its output grows further, and all
+ * connections share a pool of at most {@link BufferPool#DEFAULT_MAX_BUFFERS} buffers; see {@link Connection}.
+ * <p>
+ * Usage: {@code java -cp target/classes com.game.memorygame.GameServer [--port P]}
+ */
+public final class GameServer
+        implements Closeable, Runnable, ServerGame.Listener, WireProtocol.RequestHandler<Connection> {
+    static final int DEFAULT_PORT = 7070;
+    /** most games a connection may play at once */
+    static final int MAX_GAMES_PER_CONNECTION = 1024;
+    /** most cards a connection may hold over all the games it plays at once, each taking about 5 bytes */
+    static final int MAX_CARDS_PER_CONNECTION = 1 << 22;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    /** bits of a game id counting how many times its index was reused, so requests for old games are told apart */
+    private static final int GAME_ID_GENERATION_BITS = 7;
+    private static final int MAX_GAME_INDEX = 1 << (Integer.SIZE - 1 - GAME_ID_GENERATION_BITS);
+    private static final int NO_GAME = 0;
+
+    // games by index, indexes being reused once their game is over; index 0 is never used, so game id 0 means none
+    private ServerGame[] gamesByIndex = new ServerGame[1024];
+    private int[] nextGameIds = new int[1024];
+    private int[] freeGameIndexes = new int[1024];
+    private int nFreeGameIndexes;
+    private int nextGameIndex = 1;
+    private int nGames;
+    // games each connection plays in, so they can be ended when it goes away
+    private final Map<Connection, List<ServerGame>> gamesByConnection = new HashMap<>();
+    private final BufferPool bufferPool = new BufferPool();
+    private final List<Connection> connectionsToFlush = new ArrayList<>();
+
+    /**
+     * Binds the server to a port of the loopback interface
+     * @param port port to listen on, or 0 for any free port
+     */
+    GameServer(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return number of games created and not over yet
+     */
+    int getNumberOfGames() {
+        return nGames;
+    }
+
+    /**
+     * @return number of buffers the connections have taken from the pool so far
+     */
+    int getNumberOfAllocatedBuffers() {
+        return bufferPool.getNumberOfAllocatedBuffers();
+    }
+
+    /**
+     * Serves clients until the server is closed
+     */
+    @Override
+    public void run() {
+        try {
+            while (selector.isOpen()) {
+                selector.select(this::handle);
+                flushConnections();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("selector failed", e);
+        } catch (ClosedSelectorException e) {
+            // closed from another thread
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        selector.close();
+        serverChannel.close();
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.flush();
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) return;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Connection connection = new Connection(channel, key, bufferPool);
+            key.attach(connection);
+            gamesByConnection.put(connection, new ArrayList<>());
+        } catch (IOException e) {
+            // the client went away before it could be served
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer input = connection.read();
+        if (input == null) {
+            disconnect(connection);
+            return;
+        }
+        WireProtocol.decodeRequests(input, connection, this);
+        connection.keepUnreadInput();
+    }
+
+    @Override
+    public void create(Connection connection, int nCols, int nRows, int groupSize, int nPlayers) {
+        // checked before an id is taken, so refused requests leave nothing behind
+        if (!ServerGame.isValid(nCols, nRows, groupSize, nPlayers)) {
+            WireProtocol.putError(connection.outputBuffer(), NO_GAME, WireProtocol.ERROR_INVALID_REQUEST);
+            send(connection);
+            return;
+        }
+        int gameId = canPlay(connection, nCols * nRows) ? allocateGameId() : NO_GAME;
+        if (gameId == NO_GAME) {
+            WireProtocol.putError(connection.outputBuffer(), NO_GAME, WireProtocol.ERROR_REJECTED);
+            send(connection);
+            return;
+        }
+        ServerGame game = new ServerGame(gameId, nCols, nRows, groupSize, nPlayers,
+                ThreadLocalRandom.current().nextLong());
+        gamesByIndex[game.getId() >>> GAME_ID_GENERATION_BITS] = game;
+        nGames++;
+        game.join(connection);
+        gamesByConnection.get(connection).add(game);
+        WireProtocol.putCreated(connection.outputBuffer(), game.getId());
+        send(connection);
+        startIfFull(game);
+    }
+
+    @Override
+    public void join(Connection connection, int gameId) {
+        ServerGame game = findGame(connection, gameId);
+        if (game == null) return;
+        if (game.isStarted() || !canPlay(connection, game.getNumberOfCards())) {
+            WireProtocol.putError(connection.outputBuffer(), gameId, WireProtocol.ERROR_REJECTED);
+            send(connection);
+            return;
+        }
+        int player = game.join(connection);
+        gamesByConnection.get(connection).add(game);
+        WireProtocol.putJoined(connection.outputBuffer(), gameId, player);
+        send(connection);
+        startIfFull(game);
+    }
+
+    @Override
+    public void cardSelected(Connection connection, int gameId, int slot) {
+        ServerGame game = findGame(connection, gameId);
+        if (game == null) return;
+        int result = game.flip(playerOf(connection, game), slot, this);
+        if (result == ServerGame.FLIPPED) return;
+        int errorCode = result == ServerGame.INVALID_SLOT
+                ? WireProtocol.ERROR_INVALID_REQUEST
+                : WireProtocol.ERROR_REJECTED;
+        WireProtocol.putError(connection.outputBuffer(), gameId, errorCode);
+        send(connection);
+    }
+
+    /**
+     * @return whether the connection stays within its limits when it plays one more game of the given number of cards
+     */
+    private boolean canPlay(Connection connection, int nCards) {
+        List<ServerGame> connectionGames = gamesByConnection.get(connection);
+        if (connectionGames.size() >= MAX_GAMES_PER_CONNECTION) return false;
+        long nHeldCards = nCards;
+        for (ServerGame game : connectionGames) {
+            nHeldCards += game.getNumberOfCards();
+        }
+        return nHeldCards <= MAX_CARDS_PER_CONNECTION;
+    }
+
+    private void startIfFull(ServerGame game) {
+        if (!game.isStarted()) return;
+        for (int player = 0; player < game.getNumberOfPlayers(); player++) {
+            Connection connection = game.getPlayer(player);
+            WireProtocol.putGameStarted(connection.outputBuffer(), game.getId(), game.getColumnCount(),
+                    game.getRowCount(), game.getGroupSize(), game.getNumberOfPlayers());
+            send(connection);
+        }
+    }
+
+    /**
+     * @return the game, or null after replying with an error if there is no such game
+     */
+    private ServerGame findGame(Connection connection, int gameId) {
+        int index = gameId >>> GAME_ID_GENERATION_BITS;
+        ServerGame game = index < gamesByIndex.length ? gamesByIndex[index] : null;
+        if (game == null || game.getId() != gameId) {
+            WireProtocol.putError(connection.outputBuffer(), gameId, WireProtocol.ERROR_INVALID_REQUEST);
+            send(connection);
+            return null;
+        }
+        return game;
+    }
+
+    /**
+     * @return a new game id, or {@link #NO_GAME} if every id is taken
+     */
+    private int allocateGameId() {
+        int index;
+        if (nFreeGameIndexes > 0) {
+            index = freeGameIndexes[--nFreeGameIndexes];
+        } else {
+            if (nextGameIndex == MAX_GAME_INDEX) return NO_GAME;
+            if (nextGameIndex == gamesByIndex.length) {
+                gamesByIndex = Arrays.copyOf(gamesByIndex, 2 * gamesByIndex.length);
+                nextGameIds = Arrays.copyOf(nextGameIds, 2 * nextGameIds.length);
+                freeGameIndexes = Arrays.copyOf(freeGameIndexes, 2 * freeGameIndexes.length);
+            }
+            index = nextGameIndex++;
+            nextGameIds[index] = index << GAME_ID_GENERATION_BITS;
+        }
+        int gameId = nextGameIds[index];
+        // the next game at this index gets the next generation
+        nextGameIds[index] = (index << GAME_ID_GENERATION_BITS) | ((gameId + 1) & ((1 << GAME_ID_GENERATION_BITS) - 1));
+        return gameId;
+    }
+
+    /**
+     * @return player number of the connection in the game, or -1 if it does not play it
+     */
+    private static int playerOf(Connection connection, ServerGame game) {
+        for (int player = 0; player < game.getNumberOfPlayers(); player++) {
+            if (game.getPlayer(player) == connection) return player;
+        }
+        return -1;
+    }
+
+    private void disconnect(Connection connection) {
+        connection.close();
+        List<ServerGame> connectionGames = gamesByConnection.remove(connection);
+        if (connectionGames == null) return;
+        for (ServerGame game : connectionGames) {
+            game.abandon(this);
+        }
+    }
+
+    @Override
+    public void cardRevealed(ServerGame game, int player, int slot, int pairId) {
+        int argb = game.getPalette().argbOf(pairId);
+        for (int i = 0; i < game.getNumberOfPlayers(); i++) {
+            Connection connection = game.getPlayer(i);
+            if (connection.getChannel().isOpen()) {
+                WireProtocol.putCardRevealed(connection.outputBuffer(), game.getId(), player, slot, pairId, argb);
+                send(connection);
+            }
+        }
+    }
+
+    @Override
+    public void selectionEvaluated(ServerGame game, int player, boolean isMatch) {
+        for (int i = 0; i < game.getNumberOfPlayers(); i++) {
+            Connection connection = game.getPlayer(i);
+            if (!connection.getChannel().isOpen()) continue;
+            if (isMatch) {
+                WireProtocol.putMatch(connection.outputBuffer(), game.getId(), player, game.getScore(player));
+            } else {
+                WireProtocol.putMismatch(connection.outputBuffer(), game.getId(), game.getCurrentPlayer());
+            }
+            send(connection);
+        }
+    }
+
+    @Override
+    public void gameOver(ServerGame game) {
+        for (int player = 0; player < game.getNumberOfPlayers(); player++) {
+            Connection connection = game.getPlayer(player);
+            if (connection == null) continue;
+            if (connection.getChannel().isOpen()) {
+                WireProtocol.putGameOver(connection.outputBuffer(), game.getId());
+                send(connection);
+            }
+            List<ServerGame> connectionGames = gamesByConnection.get(connection);
+            if (connectionGames != null) {
+                connectionGames.remove(game);
+            }
+        }
+        int index = game.getId() >>> GAME_ID_GENERATION_BITS;
+        gamesByIndex[index] = null;
+        freeGameIndexes[nFreeGameIndexes++] = index;
+        nGames--;
+    }
+
+    /**
+     * Sends the messages just put in the output of a connection, together with everything else the connection is sent
+     * during this iteration of the selector loop
+     */
+    private void send(Connection connection) {
+        if (connection.queueFlush()) {
+            connectionsToFlush.add(connection);
+        }
+    }
+
+    /**
+     * Flushes every connection that was sent something, so each gets one write per iteration however many games and
+     * messages it was sent
+     */
+    private void flushConnections() {
+        // disconnecting ends games, which can queue more connections
+        for (int i = 0; i < connectionsToFlush.size(); i++) {
+            Connection connection = connectionsToFlush.get(i);
+            if (connection.hasOverflowed()) {
+                disconnect(connection);
+                continue;
+            }
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+        connectionsToFlush.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = CommandLine.parseOptions(args, "--port");
+        int port = Integer.parseInt(options.getOrDefault("--port", String.valueOf(DEFAULT_PORT)));
+        try (GameServer server = new GameServer(port)) {
+            System.out.println("listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+            server.run();
+        }
+    }
+}
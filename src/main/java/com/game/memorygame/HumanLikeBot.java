@@ -0,0 +1,221 @@
+package com.game.memorygame;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays like a person with a fading memory. Each card seen is remembered with a confidence that decays with the
+ * number of turns since it was last seen, and is reinforced whenever it is seen again. The bot completes a group when
+ * it recalls all of its cards, and otherwise turns over random cards it does not recall, so forgotten cards are
+ * turned over again as if they had never been seen.
+ * <p>
+ * Memory is kept in per-slot arrays, so no turn allocates. Only groups seen recently enough to be recalled with a
+ * probability of at least {@link #RECALL_FLOOR} are considered at the start of a turn; a group drops out of that
+ * list once its memory has faded below it and comes back when one of its cards is seen again, which bounds the work
+ * per turn whatever the size of the board.
+ */
+class HumanLikeBot implements BotPlayer {
+    static final double DEFAULT_HALF_LIFE_TURNS = 6;
+    static final double DEFAULT_LEARNING_RATE = 0.75;
+    /** groups recalled with a lower probability are treated as forgotten */
+    static final double RECALL_FLOOR = 0.01;
+
+    private static final int UNKNOWN = -1;
+    // how many recalled cards a random pick may land on before the bot draws from the cards it never saw instead
+    private static final int MAX_REJECTED_PICKS = 8;
+
+    private final RandomGenerator random;
+    private final double decayPerTurn;
+    private final double learningRate;
+
+    private int groupSize;
+    private int[] pairIdBySlot = new int[0];
+    private int[] lastSeenTurn = new int[0];
+    private float[] confidence = new float[0];
+    // the seen slots of pair p are knownSlots[p * groupSize, p * groupSize + knownCounts[p])
+    private int[] knownSlots = new int[0];
+    private int[] knownCounts = new int[0];
+    // pairs whose cards have all been seen and may still be recalled; some may have been matched or forgotten since
+    private int[] recallablePairs = new int[0];
+    private int nRecallablePairs;
+    private boolean[] pairRecallable = new boolean[0];
+    // slots that may still be hidden; matched slots are dropped lazily when drawn
+    private int[] candidates = new int[0];
+    private int nCandidates;
+    // slots never seen; seen slots are dropped lazily when drawn
+    private int[] unseenSlots = new int[0];
+    private int nUnseenSlots;
+
+    private int turn;
+    private int nFlippedThisTurn;
+    private int turnPairId;
+
+    HumanLikeBot(RandomGenerator random) {
+        this(random, DEFAULT_HALF_LIFE_TURNS, DEFAULT_LEARNING_RATE);
+    }
+
+    /**
+     * @param halfLifeTurns number of turns after which the recall of an unrefreshed card has halved, or
+     *                      {@link Double#POSITIVE_INFINITY} for a memory that never fades
+     * @param learningRate  fraction of what is left to learn about a card that is learnt each time it is seen
+     */
+    HumanLikeBot(RandomGenerator random, double halfLifeTurns, double learningRate) {
+        if (halfLifeTurns <= 0 || learningRate <= 0 || learningRate > 1) {
+            throw new IllegalArgumentException("invalid memory parameters: half-life " + halfLifeTurns
+                    + ", learning rate " + learningRate);
+        }
+        this.random = random;
+        this.decayPerTurn = Math.log(2) / halfLifeTurns;
+        this.learningRate = learningRate;
+    }
+
+    @Override
+    public void reset(BoardView board) {
+        int nSlots = board.getNumberOfSlots();
+        groupSize = board.getGroupSize();
+        int nPairs = nSlots / groupSize;
+        if (pairIdBySlot.length != nSlots) {
+            pairIdBySlot = new int[nSlots];
+            lastSeenTurn = new int[nSlots];
+            confidence = new float[nSlots];
+            knownSlots = new int[nSlots];
+            candidates = new int[nSlots];
+            unseenSlots = new int[nSlots];
+        }
+        if (knownCounts.length != nPairs) {
+            knownCounts = new int[nPairs];
+            recallablePairs = new int[nPairs];
+            pairRecallable = new boolean[nPairs];
+        }
+        Arrays.fill(pairIdBySlot, UNKNOWN);
+        Arrays.fill(confidence, 0);
+        Arrays.fill(knownCounts, 0);
+        Arrays.fill(pairRecallable, false);
+        for (int slot = 0; slot < nSlots; slot++) {
+            candidates[slot] = slot;
+            unseenSlots[slot] = slot;
+        }
+        nCandidates = nSlots;
+        nUnseenSlots = nSlots;
+        nRecallablePairs = 0;
+        turn = 0;
+        nFlippedThisTurn = 0;
+    }
+
+    @Override
+    public int chooseSlot(BoardView board) {
+        if (nFlippedThisTurn == 0) {
+            int slot = findRecalledGroup(board);
+            if (slot != UNKNOWN) return slot;
+        } else {
+            int pairId = turnPairId;
+            int from = pairId * groupSize;
+            for (int i = from; i < from + knownCounts[pairId]; i++) {
+                int slot = knownSlots[i];
+                if (board.getState(slot) == CardState.INACTIVE && recalls(slot)) return slot;
+            }
+        }
+        return pickUnrecalledSlot(board);
+    }
+
+    @Override
+    public void cardRevealed(int slot, int pairId) {
+        if (pairIdBySlot[slot] == UNKNOWN) {
+            pairIdBySlot[slot] = pairId;
+            int nKnown = knownCounts[pairId]++;
+            knownSlots[(pairId * groupSize) + nKnown] = slot;
+        }
+        double recall = recallProbability(slot);
+        confidence[slot] = (float) (recall + ((1 - recall) * learningRate));
+        lastSeenTurn[slot] = turn;
+        if (knownCounts[pairId] == groupSize && !pairRecallable[pairId]) {
+            pairRecallable[pairId] = true;
+            recallablePairs[nRecallablePairs++] = pairId;
+        }
+
+        if (nFlippedThisTurn == 0) {
+            turnPairId = pairId;
+        }
+        nFlippedThisTurn = (nFlippedThisTurn + 1) % groupSize;
+        if (nFlippedThisTurn == 0) {
+            turn++;
+        }
+    }
+
+    /**
+     * @return the probability of remembering the pair id of a slot right now
+     */
+    double recallProbability(int slot) {
+        return confidence[slot] * Math.exp(-decayPerTurn * (turn - lastSeenTurn[slot]));
+    }
+
+    /**
+     * @return the probability of remembering every card of a pair whose cards have all been seen, the product of
+     *         their recall probabilities computed with a single exponential
+     */
+    private double groupRecallProbability(int pairId) {
+        int from = pairId * groupSize;
+        double product = 1;
+        int elapsedTurns = 0;
+        for (int i = from; i < from + groupSize; i++) {
+            int slot = knownSlots[i];
+            product *= confidence[slot];
+            elapsedTurns += turn - lastSeenTurn[slot];
+        }
+        return product * Math.exp(-decayPerTurn * elapsedTurns);
+    }
+
+    private boolean recalls(int slot) {
+        return random.nextDouble() < recallProbability(slot);
+    }
+
+    private int findRecalledGroup(BoardView board) {
+        for (int i = nRecallablePairs - 1; i >= 0; i--) {
+            int pairId = recallablePairs[i];
+            boolean matched = board.getState(knownSlots[pairId * groupSize]) == CardState.DISABLED;
+            double recall = matched ? 0 : groupRecallProbability(pairId);
+            if (recall < RECALL_FLOOR) {
+                // dropped until one of its cards is seen again, as nothing else can bring it back
+                recallablePairs[i] = recallablePairs[--nRecallablePairs];
+                pairRecallable[pairId] = false;
+                continue;
+            }
+            if (random.nextDouble() < recall) return knownSlots[pairId * groupSize];
+        }
+        return UNKNOWN;
+    }
+
+    private int pickUnrecalledSlot(BoardView board) {
+        int nRejected = 0;
+        while (nCandidates > 0) {
+            int index = Dealer.nextInt(random, nCandidates);
+            int slot = candidates[index];
+            CardState state = board.getState(slot);
+            if (state == CardState.DISABLED) {
+                candidates[index] = candidates[--nCandidates];
+            } else if (state == CardState.INACTIVE) {
+                boolean useless = pairIdBySlot[slot] != UNKNOWN
+                        && (nFlippedThisTurn == 0 || pairIdBySlot[slot] != turnPairId);
+                if (!useless || !recalls(slot)) return slot;
+                if (++nRejected == MAX_REJECTED_PICKS) {
+                    int unseenSlot = pickUnseenSlot();
+                    return unseenSlot != UNKNOWN ? unseenSlot : slot;
+                }
+            }
+        }
+        throw new IllegalStateException("no hidden card left to choose");
+    }
+
+    /**
+     * @return a random slot never seen, which is necessarily hidden, or {@link #UNKNOWN} if every card was seen
+     */
+    private int pickUnseenSlot() {
+        while (nUnseenSlots > 0) {
+            int index = Dealer.nextInt(random, nUnseenSlots);
+            int slot = unseenSlots[index];
+            if (pairIdBySlot[slot] == UNKNOWN) return slot;
+            unseenSlots[index] = unseenSlots[--nUnseenSlots];
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,268 @@
+package com.game.memorygame;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load generator for {@link GameServer}: opens many connections, each playing many single player games at once with
+ * a {@link PerfectMemoryBot} per game, and reports the throughput it got. Without a port, it starts a server of its
+ * own in the same process, so the whole setup runs on localhost.
+ * <p>
+ * Usage: {@code java -cp target/classes com.game.memorygame.LoadClient [--port P] [--connections C]
+ * [--games-per-connection G] [--size 6x5] [--seconds S]}
+ */
+public final class LoadClient implements WireProtocol.EventHandler<LoadClient.Session> {
+    private final Selector selector;
+    private final BufferPool bufferPool = new BufferPool();
+    private final int nCols;
+    private final int nRows;
+    private long deadline;
+    private final Map<Integer, ClientGame> games = new HashMap<>();
+
+    private int nGamesInProgress;
+    private long nGamesPlayed;
+    private long nFlips;
+    private long flipRoundTripNanos;
+
+    private LoadClient(int nCols, int nRows) throws IOException {
+        this.selector = Selector.open();
+        this.nCols = nCols;
+        this.nRows = nRows;
+    }
+
+    /**
+     * A game played by the load client, with the board as far as the server revealed it
+     */
+    private static final class ClientGame implements BoardView {
+        final PerfectMemoryBot bot = new PerfectMemoryBot();
+        int id;
+        int groupSize;
+        byte[] states = new byte[0];
+        int nDisabled;
+        int[] selectedSlots = new int[0];
+        int nSelected;
+        long flipSentAt;
+
+        void start(int nSlots, int groupSize) {
+            this.groupSize = groupSize;
+            if (states.length != nSlots) {
+                states = new byte[nSlots];
+            }
+            if (selectedSlots.length != groupSize) {
+                selectedSlots = new int[groupSize];
+            }
+            Arrays.fill(states, (byte) CardState.INACTIVE.ordinal());
+            nDisabled = 0;
+            nSelected = 0;
+            bot.reset(this);
+        }
+
+        void endTurn(CardState outcome) {
+            for (int i = 0; i < nSelected; i++) {
+                states[selectedSlots[i]] = (byte) outcome.ordinal();
+            }
+            if (outcome == CardState.DISABLED) {
+                nDisabled += nSelected;
+            }
+            nSelected = 0;
+        }
+
+        boolean isOver() {
+            return nDisabled == states.length;
+        }
+
+        @Override
+        public int getNumberOfSlots() {
+            return states.length;
+        }
+
+        @Override
+        public int getGroupSize() {
+            return groupSize;
+        }
+
+        @Override
+        public CardState getState(int slot) {
+            return CardState.fromOrdinal(states[slot]);
+        }
+    }
+
+    /**
+     * A connection to the server
+     */
+    static final class Session {
+        final Connection connection;
+        // games waiting for the server to tell their id, in the order they were created
+        final ArrayDeque<ClientGame> creating = new ArrayDeque<>();
+
+        Session(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private void create(Session session, ClientGame game) {
+        session.creating.add(game);
+        nGamesInProgress++;
+        WireProtocol.putCreate(session.connection.outputBuffer(), nCols, nRows, GameEngine.DEFAULT_GROUP_SIZE, 1);
+    }
+
+    private void flip(Session session, ClientGame game) {
+        game.flipSentAt = System.nanoTime();
+        WireProtocol.putCardSelected(session.connection.outputBuffer(), game.id, game.bot.chooseSlot(game));
+    }
+
+    @Override
+    public void created(Session session, int gameId) {
+        ClientGame game = session.creating.remove();
+        game.id = gameId;
+        games.put(gameId, game);
+    }
+
+    @Override
+    public void joined(Session session, int gameId, int player) {
+        throw new IllegalStateException("the load client never joins games");
+    }
+
+    @Override
+    public void gameStarted(Session session, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+        ClientGame game = games.get(gameId);
+        game.start(nCols * nRows, groupSize);
+        flip(session, game);
+    }
+
+    @Override
+    public void cardRevealed(Session session, int gameId, int player, int slot, int pairId, int argb) {
+        ClientGame game = games.get(gameId);
+        nFlips++;
+        flipRoundTripNanos += System.nanoTime() - game.flipSentAt;
+        game.states[slot] = (byte) CardState.ACTIVE.ordinal();
+        game.selectedSlots[game.nSelected++] = slot;
+        game.bot.cardRevealed(slot, pairId);
+        if (game.nSelected < game.groupSize) {
+            flip(session, game);
+        }
+    }
+
+    @Override
+    public void match(Session session, int gameId, int player, int score) {
+        ClientGame game = games.get(gameId);
+        game.endTurn(CardState.DISABLED);
+        if (!game.isOver()) {
+            flip(session, game);
+        }
+    }
+
+    @Override
+    public void mismatch(Session session, int gameId, int nextPlayer) {
+        ClientGame game = games.get(gameId);
+        game.endTurn(CardState.INACTIVE);
+        flip(session, game);
+    }
+
+    @Override
+    public void gameOver(Session session, int gameId) {
+        ClientGame game = games.remove(gameId);
+        nGamesInProgress--;
+        nGamesPlayed++;
+        if (System.nanoTime() < deadline) {
+            create(session, game);
+        }
+    }
+
+    @Override
+    public void error(Session session, int gameId, int errorCode) {
+        throw new IllegalStateException("server refused a request for game " + gameId + " with error " + errorCode);
+    }
+
+    private void run(int port, int nConnections, int nGamesPerConnection, double seconds) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        for (int i = 0; i < nConnections; i++) {
+            SocketChannel channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Session(new Connection(channel, key, bufferPool)));
+        }
+
+        long start = System.nanoTime();
+        deadline = start + (long) (seconds * 1e9);
+        for (SelectionKey key : selector.keys()) {
+            Session session = (Session) key.attachment();
+            for (int i = 0; i < nGamesPerConnection; i++) {
+                create(session, new ClientGame());
+            }
+            session.connection.flush();
+        }
+        while (nGamesInProgress > 0) {
+            selector.select(this::handle);
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%d connections, %d concurrent games: %.0f games/s, %.0f flips/s, "
+                        + "mean flip round trip %.1f us%n",
+                nConnections, nConnections * nGamesPerConnection, nGamesPlayed / elapsed, nFlips / elapsed,
+                nFlips == 0 ? 0 : flipRoundTripNanos / (nFlips * 1e3));
+        for (SelectionKey key : selector.keys()) {
+            ((Session) key.attachment()).connection.close();
+        }
+        selector.close();
+    }
+
+    private void handle(SelectionKey key) {
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isReadable()) {
+                ByteBuffer input = session.connection.read();
+                if (input == null) {
+                    throw new IllegalStateException("server closed the connection");
+                }
+                WireProtocol.decodeEvents(input, session, this);
+                session.connection.keepUnreadInput();
+            }
+            // the replies to everything just decoded go out together
+            session.connection.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("connection to the server failed", e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = CommandLine.parseOptions(args,
+                "--port", "--connections", "--games-per-connection", "--size", "--seconds");
+        int port = Integer.parseInt(options.getOrDefault("--port", "0"));
+        int nConnections = Integer.parseInt(options.getOrDefault("--connections", "100"));
+        int nGamesPerConnection = Integer.parseInt(options.getOrDefault("--games-per-connection", "100"));
+        String size = options.getOrDefault("--size", "6x5");
+        double seconds = Double.parseDouble(options.getOrDefault("--seconds", "10"));
+        int nCols = CommandLine.columns(size);
+        int nRows = CommandLine.rows(size);
+
+        GameServer server = null;
+        Thread serverThread = null;
+        if (port == 0) {
+            server = new GameServer(0);
+            serverThread = new Thread(server, "game-server");
+            serverThread.start();
+            port = server.getPort();
+        }
+        try {
+            new LoadClient(nCols, nRows).run(port, nConnections, nGamesPerConnection, seconds);
+        } finally {
+            if (server != null) {
+                server.close();
+                serverThread.join();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.game.memorygame;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.util.Callback;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Overview of a whole board drawn with one pixel per slot. The pixels live in a buffer shared with the image,
+ * written in place as cards change and handed to the renderer at most once per pulse, so the view needs no node
+ * per card. The changed area is rounded to a range of horizontal bands, whose region is created the first time that
+ * range changes, so nothing is allocated per frame.
+ */
+class MinimapView extends ImageView implements BoardComponent.BoardListener {
+    static final double DEFAULT_SIZE = 120;
+    /** the image is split in at most this many bands, bounding the number of regions to n(n+1)/2 */
+    static final int MAX_BANDS = 64;
+
+    private final BoardComponent board;
+    private final int width;
+    private final int height;
+    private final IntBuffer pixels;
+    private final PixelBuffer<IntBuffer> pixelBuffer;
+
+    private final int nBands;
+    // regions[firstBand][lastBand - firstBand], created on first use
+    private final Rectangle2D[][] regions;
+    private int dirtyFirstBand;
+    private int dirtyLastBand = -1;
+    private Rectangle2D dirtyRegion;
+    // a null region marks the whole buffer as changed
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> dirtyRegionCallback = buffer -> dirtyRegion;
+    private final AnimationTimer flushTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+            stop();
+        }
+    };
+
+    MinimapView(BoardComponent board) {
+        this.board = board;
+        this.width = board.getColumnCount();
+        this.height = board.getRowCount();
+        this.pixels = ByteBuffer.allocateDirect(width * height * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+        this.pixelBuffer = new PixelBuffer<>(width, height, pixels, PixelFormat.getIntArgbPreInstance());
+        this.nBands = Math.min(height, MAX_BANDS);
+        this.regions = new Rectangle2D[nBands][];
+        for (int band = 0; band < nBands; band++) {
+            regions[band] = new Rectangle2D[nBands - band];
+        }
+
+        setImage(new WritableImage(pixelBuffer));
+        setSmooth(false);
+        setPreserveRatio(true);
+        setFitWidth(DEFAULT_SIZE);
+        setFitHeight(DEFAULT_SIZE);
+
+        board.addBoardListener(this);
+        boardReset();
+    }
+
+    @Override
+    public void slotChanged(int slot, CardState state) {
+        int x = slot / height;
+        int y = slot % height;
+        pixels.put((y * width) + x, toPixel(slot, state));
+
+        int band = (int) ((long) y * nBands / height);
+        if (dirtyLastBand < 0) {
+            dirtyFirstBand = dirtyLastBand = band;
+            flushTimer.start();
+        } else {
+            dirtyFirstBand = Math.min(dirtyFirstBand, band);
+            dirtyLastBand = Math.max(dirtyLastBand, band);
+        }
+    }
+
+    @Override
+    public void boardReset() {
+        GameEngine engine = board.getEngine();
+        for (int slot = 0; slot < engine.getNumberOfSlots(); slot++) {
+            pixels.put(((slot % height) * width) + (slot / height), toPixel(slot, engine.getState(slot)));
+        }
+        dirtyFirstBand = 0;
+        dirtyLastBand = nBands - 1;
+        flushTimer.start();
+    }
+
+    private void flush() {
+        if (dirtyLastBand < 0) return;
+        // a single region per pulse: the renderer uploads the whole image when it is updated twice between frames
+        dirtyRegion = dirtyFirstBand == 0 && dirtyLastBand == nBands - 1 ? null : region(dirtyFirstBand, dirtyLastBand);
+        pixelBuffer.updateBuffer(dirtyRegionCallback);
+        dirtyLastBand = -1;
+    }
+
+    /**
+     * @return the region covering the bands from first to last, both included
+     */
+    private Rectangle2D region(int firstBand, int lastBand) {
+        Rectangle2D region = regions[firstBand][lastBand - firstBand];
+        if (region == null) {
+            int minY = bandStart(firstBand);
+            region = new Rectangle2D(0, minY, width, bandStart(lastBand + 1) - minY);
+            regions[firstBand][lastBand - firstBand] = region;
+        }
+        return region;
+    }
+
+    private int bandStart(int band) {
+        // the first row y with y * nBands / height >= band
+        return (int) (((long) band * height + nBands - 1) / nBands);
+    }
+
+    private int toPixel(int slot, CardState state) {
+        // opaque, so already premultiplied
+        return Card.stateToArgb(state, board.getEngine().getPairId(slot), board.getPalette());
+    }
+}
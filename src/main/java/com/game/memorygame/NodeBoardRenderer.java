@@ -0,0 +1,102 @@
+package com.game.memorygame;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders every slot as its own {@link Card} node laid out in a grid
+ */
+class NodeBoardRenderer extends GridPane implements BoardRenderer {
+    private final int nCols;
+    private final int nRows;
+    private final GameEngine engine;
+    private final List<Card> cards;
+    private CardPalette palette;
+
+    NodeBoardRenderer(int nCols, int nRows, GameEngine engine, CardPalette palette) {
+        super();
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.engine = engine;
+        this.palette = palette;
+        this.cards = new ArrayList<>(nCols * nRows);
+
+        applyConstraints();
+        for (int col = 0; col < nCols; col++) {
+            for (int row = 0; row < nRows; row++) {
+                int index = (col * nRows) + row;
+                Card card = new Card();
+                card.show(engine.getState(index), engine.getPairId(index), palette);
+                setCard(card, col, row);
+            }
+        }
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void slotChanged(int slot, CardState state) {
+        cards.get(slot).show(state, engine.getPairId(slot), palette);
+    }
+
+    @Override
+    public void reset(CardPalette palette) {
+        this.palette = palette;
+        for (int slot = 0; slot < cards.size(); slot++) {
+            slotChanged(slot, engine.getState(slot));
+        }
+    }
+
+    @Override
+    public int slotAt(double x, double y) {
+        int col = (int) (x * nCols / getWidth());
+        int row = (int) (y * nRows / getHeight());
+        if (col < 0 || col >= nCols || row < 0 || row >= nRows) return -1;
+
+        // clicks on the anchor pane around a card do not select it
+        int slot = (col * nRows) + row;
+        Card card = cards.get(slot);
+        double cardX = x - card.getParent().getLayoutX() - card.getLayoutX();
+        double cardY = y - card.getParent().getLayoutY() - card.getLayoutY();
+        if (cardX < 0 || cardX >= card.getWidth() || cardY < 0 || cardY >= card.getHeight()) return -1;
+        return slot;
+    }
+
+    private void applyConstraints() {
+        ObservableList<RowConstraints> rowConstraints = getRowConstraints();
+        for (int i = 0; i < nRows; i++) {
+            RowConstraints constraints = new RowConstraints();
+            constraints.setPercentHeight(100.0 / nRows);
+            rowConstraints.add(constraints);
+        }
+
+        ObservableList<ColumnConstraints> columnConstraints = getColumnConstraints();
+        for (int i = 0; i < nCols; i++) {
+            ColumnConstraints constraints = new ColumnConstraints();
+            constraints.setPercentWidth(100.0/ nCols);
+            columnConstraints.add(constraints);
+        }
+    }
+
+    private void setCard(Card card, int col, int row) {
+        int index = (col * nRows) + row;
+        cards.add(index, card);
+
+        AnchorPane.setTopAnchor(card, 4.0);
+        AnchorPane.setBottomAnchor(card, 4.0);
+        AnchorPane.setLeftAnchor(card, 4.0);
+        AnchorPane.setRightAnchor(card, 4.0);
+        AnchorPane ap = new AnchorPane(card);
+        add(ap, col, row);
+    }
+}
@@ -0,0 +1,106 @@
+package com.game.memorygame;
+
+import java.util.Arrays;
+
+/**
+ * Remembers every card it has seen. It completes a group as soon as all of its cards are known, and otherwise
+ * explores cards it has never seen.
+ */
+class PerfectMemoryBot implements BotPlayer {
+    private static final int UNKNOWN = -1;
+
+    private int groupSize;
+    private int[] pairIdBySlot = new int[0];
+    // the known slots of pair p are knownSlots[p * groupSize, p * groupSize + knownCounts[p])
+    private int[] knownSlots = new int[0];
+    private int[] knownCounts = new int[0];
+    // pairs whose cards are all known; some may have been matched since
+    private int[] completePairs = new int[0];
+    private int nCompletePairs;
+    private int nextUnseenSlot;
+
+    private int nFlippedThisTurn;
+    private int turnPairId;
+    private boolean turnMatching;
+
+    @Override
+    public void reset(BoardView board) {
+        int nSlots = board.getNumberOfSlots();
+        groupSize = board.getGroupSize();
+        int nPairs = nSlots / groupSize;
+        if (pairIdBySlot.length != nSlots) {
+            pairIdBySlot = new int[nSlots];
+            knownSlots = new int[nSlots];
+        }
+        if (knownCounts.length != nPairs) {
+            knownCounts = new int[nPairs];
+            completePairs = new int[nPairs];
+        }
+        Arrays.fill(pairIdBySlot, UNKNOWN);
+        Arrays.fill(knownCounts, 0);
+        nCompletePairs = 0;
+        nextUnseenSlot = 0;
+        nFlippedThisTurn = 0;
+    }
+
+    @Override
+    public int chooseSlot(BoardView board) {
+        if (nFlippedThisTurn == 0) {
+            while (nCompletePairs > 0) {
+                int pairId = completePairs[nCompletePairs - 1];
+                if (board.getState(knownSlots[pairId * groupSize]) == CardState.INACTIVE) {
+                    return knownSlots[pairId * groupSize];
+                }
+                nCompletePairs--;
+            }
+        } else if (turnMatching) {
+            int slot = findHiddenKnownSlot(board, turnPairId);
+            if (slot != UNKNOWN) return slot;
+        }
+
+        int slot = findUnseenSlot(board);
+        if (slot != UNKNOWN) return slot;
+        // every card has been seen, so this turn cannot be completed into a match anyway
+        for (slot = 0; slot < pairIdBySlot.length; slot++) {
+            if (board.getState(slot) == CardState.INACTIVE) return slot;
+        }
+        throw new IllegalStateException("no hidden card left to choose");
+    }
+
+    @Override
+    public void cardRevealed(int slot, int pairId) {
+        if (pairIdBySlot[slot] == UNKNOWN) {
+            pairIdBySlot[slot] = pairId;
+            int nKnown = knownCounts[pairId]++;
+            knownSlots[(pairId * groupSize) + nKnown] = slot;
+            if (nKnown + 1 == groupSize) {
+                completePairs[nCompletePairs++] = pairId;
+            }
+        }
+
+        if (nFlippedThisTurn == 0) {
+            turnPairId = pairId;
+            turnMatching = true;
+        } else if (pairId != turnPairId) {
+            turnMatching = false;
+        }
+        nFlippedThisTurn = (nFlippedThisTurn + 1) % groupSize;
+    }
+
+    private int findHiddenKnownSlot(BoardView board, int pairId) {
+        int from = pairId * groupSize;
+        for (int i = from; i < from + knownCounts[pairId]; i++) {
+            if (board.getState(knownSlots[i]) == CardState.INACTIVE) return knownSlots[i];
+        }
+        return UNKNOWN;
+    }
+
+    private int findUnseenSlot(BoardView board) {
+        for (; nextUnseenSlot < pairIdBySlot.length; nextUnseenSlot++) {
+            if (pairIdBySlot[nextUnseenSlot] == UNKNOWN && board.getState(nextUnseenSlot) == CardState.INACTIVE) {
+                return nextUnseenSlot;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,47 @@
+package com.game.memorygame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Turns over hidden cards uniformly at random, ignoring everything it has seen
+ */
+class RandomBot implements BotPlayer {
+    private final RandomGenerator random;
+    // slots that may still be hidden; matched slots are dropped lazily when drawn
+    private int[] candidates = new int[0];
+    private int nCandidates;
+
+    RandomBot(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public void reset(BoardView board) {
+        int nSlots = board.getNumberOfSlots();
+        if (candidates.length != nSlots) {
+            candidates = new int[nSlots];
+        }
+        for (int slot = 0; slot < nSlots; slot++) {
+            candidates[slot] = slot;
+        }
+        nCandidates = nSlots;
+    }
+
+    @Override
+    public int chooseSlot(BoardView board) {
+        while (nCandidates > 0) {
+            int index = Dealer.nextInt(random, nCandidates);
+            int slot = candidates[index];
+            CardState state = board.getState(slot);
+            if (state == CardState.INACTIVE) return slot;
+            if (state == CardState.DISABLED) {
+                candidates[index] = candidates[--nCandidates];
+            }
+        }
+        throw new IllegalStateException("no hidden card left to choose");
+    }
+
+    @Override
+    public void cardRevealed(int slot, int pairId) {
+    }
+}
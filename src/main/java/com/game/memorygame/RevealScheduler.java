@@ -0,0 +1,16 @@
+package com.game.memorygame;
+
+import javafx.util.Duration;
+
+/**
+ * Runs the delayed task that ends a turn, such as hiding a mismatched selection after it was shown.
+ * At most one task is pending at a time; scheduling another one replaces it.
+ */
+interface RevealScheduler {
+    void schedule(Duration delay, Runnable task);
+
+    /**
+     * Drops the pending task, if any, without running it
+     */
+    void cancel();
+}
@@ -0,0 +1,24 @@
+package com.game.memorygame;
+
+/**
+ * Evaluates one board at a time
+ */
+final class ScalarBatchEvaluator implements BatchEvaluator {
+    private static final int INACTIVE = CardState.INACTIVE.ordinal();
+    private static final int DISABLED = CardState.DISABLED.ordinal();
+
+    @Override
+    public void evaluate(int from, int to, int groupSize, int[] nSelected, int[] firstPairIds, int[] lastPairIds,
+                         int[] matching, int[] outcomes, float[] rewards) {
+        for (int board = from; board < to; board++) {
+            if (nSelected[board] != groupSize) {
+                outcomes[board] = NO_OUTCOME;
+            } else if (matching[board] != 0 && firstPairIds[board] == lastPairIds[board]) {
+                outcomes[board] = DISABLED;
+                rewards[board] = VectorEnvironment.MATCH_REWARD;
+            } else {
+                outcomes[board] = INACTIVE;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.game.memorygame;
+
+/**
+ * A game hosted by {@link GameServer}, played by one or more connected players taking turns. Selections are evaluated
+ * as soon as they are complete, as in a speed run of {@link BoardComponent}: a match scores and lets the player go on,
+ * a mismatch hides the cards again and passes the turn to the next player.
+ */
+final class ServerGame {
+    /** largest board a client may ask for */
+    static final int MAX_CARDS = 1 << 20;
+    /** most players a game may be created for */
+    static final int MAX_PLAYERS = 8;
+
+    // results of flip
+    static final int FLIPPED = 0;
+    /** the slot does not exist or its card is not hidden */
+    static final int INVALID_SLOT = 1;
+    /** the game is not being played or it is not the turn of the player */
+    static final int NOT_YOUR_TURN = 2;
+
+    /**
+     * Receives everything that happens in a game, to tell its players
+     */
+    interface Listener {
+        void cardRevealed(ServerGame game, int player, int slot, int pairId);
+
+        /**
+         * @param player player who completed the selection
+         */
+        void selectionEvaluated(ServerGame game, int player, boolean isMatch);
+
+        void gameOver(ServerGame game);
+    }
+
+    private final int id;
+    private final int nCols;
+    private final int nRows;
+    private final CardPalette palette;
+    private final GameEngine engine;
+    private final Connection[] players;
+    private final int[] scores;
+    private int nPlayers;
+    private int currentPlayer;
+    private boolean over;
+
+    /**
+     * @param nPlayers number of players that have to join before the game starts
+     * @param seed seed of the deal, which is never sent to the players
+     */
+    ServerGame(int id, int nCols, int nRows, int groupSize, int nPlayers, long seed) {
+        if (!isValid(nCols, nRows, groupSize, nPlayers)) {
+            throw new IllegalArgumentException("invalid game: " + nCols + "x" + nRows + " for " + nPlayers + " players");
+        }
+        this.id = id;
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.palette = new CardPalette(seed);
+        this.engine = new GameEngine(Dealer.dealForSeed(nCols * nRows, groupSize, seed), groupSize);
+        this.players = new Connection[nPlayers];
+        this.scores = new int[nPlayers];
+    }
+
+    /**
+     * @return whether a game can be created with these arguments, which come from a client and may be anything
+     */
+    static boolean isValid(int nCols, int nRows, int groupSize, int nPlayers) {
+        return nCols > 0 && nRows > 0 && (long) nCols * nRows <= MAX_CARDS
+                && groupSize >= 2 && (nCols * nRows) % groupSize == 0
+                && nPlayers > 0 && nPlayers <= MAX_PLAYERS;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int getColumnCount() {
+        return nCols;
+    }
+
+    int getRowCount() {
+        return nRows;
+    }
+
+    int getNumberOfCards() {
+        return engine.getNumberOfSlots();
+    }
+
+    int getGroupSize() {
+        return engine.getGroupSize();
+    }
+
+    /**
+     * @return colors of the pairs, the same as {@link BoardComponent} shows for the seed
+     */
+    CardPalette getPalette() {
+        return palette;
+    }
+
+    int getNumberOfPlayers() {
+        return players.length;
+    }
+
+    Connection getPlayer(int player) {
+        return players[player];
+    }
+
+    int getScore(int player) {
+        return scores[player];
+    }
+
+    int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    boolean isStarted() {
+        return nPlayers == players.length;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Seats a player; the game starts once every seat is taken
+     * @return the player number of the connection
+     */
+    int join(Connection connection) {
+        if (isStarted()) {
+            throw new IllegalStateException("game " + id + " is full");
+        }
+        int player = nPlayers++;
+        players[player] = connection;
+        return player;
+    }
+
+    /**
+     * Turns over a card for a player, evaluating the selection once it is complete. Rejected clicks are an ordinary
+     * part of play, so they are reported by the result rather than by an exception.
+     * @param player player number, or -1 for a connection that does not play the game
+     * @return {@link #FLIPPED}, or {@link #INVALID_SLOT} or {@link #NOT_YOUR_TURN} if nothing was done
+     */
+    int flip(int player, int slot, Listener listener) {
+        if (!isStarted() || over || player != currentPlayer) return NOT_YOUR_TURN;
+        if (slot < 0 || slot >= engine.getNumberOfSlots() || engine.flip(slot) == GameEngine.FlipResult.IGNORED) {
+            return INVALID_SLOT;
+        }
+        listener.cardRevealed(this, player, slot, engine.getPairId(slot));
+        if (!engine.isSelectionComplete()) return FLIPPED;
+
+        boolean isMatch = engine.evaluateSelection();
+        if (isMatch) {
+            scores[player]++;
+        } else {
+            currentPlayer = (currentPlayer + 1) % players.length;
+        }
+        listener.selectionEvaluated(this, player, isMatch);
+        if (engine.isGameOver()) {
+            over = true;
+            listener.gameOver(this);
+        }
+        return FLIPPED;
+    }
+
+    /**
+     * Ends the game early, when a player leaves
+     */
+    void abandon(Listener listener) {
+        if (over) return;
+        over = true;
+        listener.gameOver(this);
+    }
+}
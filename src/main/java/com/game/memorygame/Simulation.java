@@ -0,0 +1,143 @@
+package com.game.memorygame;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Command-line Monte Carlo simulation: plays many seeded headless games per board size and bot, spread over all
+ * cores, and prints the distribution of turns, mismatches and minimum game length. Game i of a run is always dealt
+ * from the same seed, so runs are reproducible whatever the number of cores.
+ * <p>
+ * Usage: {@code java -cp target/classes com.game.memorygame.Simulation [--games N] [--sizes 6x5,10x10]
+ * [--bots perfect,human,random] [--group-size K] [--seed S] [--reveal-delay-ms MS]}
+ */
+public final class Simulation {
+    /** games played in a row by one task, with its own engine, bot and generator */
+    private static final int GAMES_PER_TASK = 256;
+    /** same as BoardComponent.DEFAULT_REVEAL_DELAY, which cannot be loaded without JavaFX */
+    private static final double DEFAULT_REVEAL_DELAY_MILLIS = 1000;
+
+    private final int nCols;
+    private final int nRows;
+    private final int groupSize;
+    private final String botName;
+    private final long seed;
+
+    Simulation(int nCols, int nRows, int groupSize, String botName, long seed) {
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.groupSize = groupSize;
+        this.botName = botName;
+        this.seed = seed;
+        createBot(new Xoshiro256PlusPlus(0)); // rejects unknown bots before any game is played
+    }
+
+    /**
+     * Plays the games in parallel; each task owns its engine, deal, bot and generator, which are reset for every game,
+     * and writes only its own results
+     * @return number of turns of each game, indexed by game
+     */
+    int[] run(int nGames) {
+        int[] turnsByGame = new int[nGames];
+        int nTasks = (nGames + GAMES_PER_TASK - 1) / GAMES_PER_TASK;
+        IntStream.range(0, nTasks).parallel().forEach(task -> {
+            int[] pairIds = new int[nCols * nRows];
+            GameEngine engine = new GameEngine(pairIds, groupSize);
+            Xoshiro256PlusPlus random = new Xoshiro256PlusPlus(0);
+            BotPlayer bot = createBot(random);
+            int to = Math.min(nGames, (task + 1) * GAMES_PER_TASK);
+            for (int game = task * GAMES_PER_TASK; game < to; game++) {
+                long gameSeed = gameSeed(game);
+                Dealer.dealForSeed(pairIds, groupSize, gameSeed);
+                engine.reset();
+                // the bot forgets the last game when it is played, so only its random choices are reseeded
+                random.setSeed(~gameSeed);
+                turnsByGame[game] = BotGame.play(engine, bot);
+            }
+        });
+        return turnsByGame;
+    }
+
+    long gameSeed(int game) {
+        return Xoshiro256PlusPlus.mix64(seed + (game * Xoshiro256PlusPlus.GOLDEN_GAMMA));
+    }
+
+    /**
+     * @param random generator the bot makes its random choices with, if any
+     */
+    private BotPlayer createBot(RandomGenerator random) {
+        return switch (botName) {
+            case "perfect" -> new PerfectMemoryBot();
+            case "human" -> new HumanLikeBot(random);
+            case "random" -> new RandomBot(random);
+            default -> throw new IllegalArgumentException("unknown bot: " + botName);
+        };
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = CommandLine.parseOptions(args,
+                "--games", "--sizes", "--bots", "--group-size", "--seed", "--reveal-delay-ms");
+        int nGames = Integer.parseInt(options.getOrDefault("--games", "10000"));
+        List<String> sizes = Arrays.asList(options.getOrDefault("--sizes", "6x5").split(","));
+        List<String> bots = Arrays.asList(options.getOrDefault("--bots", "perfect,human,random").split(","));
+        int groupSize = Integer.parseInt(
+                options.getOrDefault("--group-size", String.valueOf(GameEngine.DEFAULT_GROUP_SIZE)));
+        long seed = Long.parseLong(options.getOrDefault("--seed", "1"));
+        double revealDelayMillis = Double.parseDouble(
+                options.getOrDefault("--reveal-delay-ms", String.valueOf(DEFAULT_REVEAL_DELAY_MILLIS)));
+
+        System.out.printf(Locale.ROOT, "%d games per row, group size %d, seed %d, %d threads%n",
+                nGames, groupSize, seed, Runtime.getRuntime().availableProcessors());
+        System.out.printf(Locale.ROOT, "%-10s %-8s %-12s %10s %9s %8s %8s %8s %8s %8s%n",
+                "size", "bot", "metric", "mean", "stddev", "min", "p50", "p90", "p99", "max");
+        for (String size : sizes) {
+            int nCols = CommandLine.columns(size);
+            int nRows = CommandLine.rows(size);
+            int nPairs = nCols * nRows / groupSize;
+            for (String bot : bots) {
+                long start = System.nanoTime();
+                int[] turns = new Simulation(nCols, nRows, groupSize, bot, seed).run(nGames);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                Arrays.sort(turns);
+                System.out.println(formatRow(size, bot, "turns", turns, 0, 1));
+                System.out.println(formatRow(size, bot, "mismatches", turns, -nPairs, 1));
+                // every turn ends with the selection shown for the reveal delay; thinking and clicking come on top
+                System.out.println(formatRow(size, bot, "min len (s)", turns, 0, revealDelayMillis / 1000));
+                System.out.printf(Locale.ROOT, "%-10s %-8s %.0f games/s%n", size, bot, nGames / seconds);
+            }
+        }
+    }
+
+    /**
+     * Formats the distribution of (turns + offset) * scale over the games
+     * @param sortedTurns number of turns of each game, in ascending order
+     */
+    private static String formatRow(String size, String bot, String metric, int[] sortedTurns, int offset, double scale) {
+        double sum = 0;
+        double sumOfSquares = 0;
+        for (int turns : sortedTurns) {
+            double value = (turns + offset) * scale;
+            sum += value;
+            sumOfSquares += value * value;
+        }
+        int n = sortedTurns.length;
+        double mean = sum / n;
+        double stddev = Math.sqrt(Math.max(0, (sumOfSquares / n) - (mean * mean)));
+        return String.format(Locale.ROOT, "%-10s %-8s %-12s %10.2f %9.2f %8.1f %8.1f %8.1f %8.1f %8.1f",
+                size, bot, metric, mean, stddev,
+                (sortedTurns[0] + offset) * scale,
+                (percentile(sortedTurns, 0.50) + offset) * scale,
+                (percentile(sortedTurns, 0.90) + offset) * scale,
+                (percentile(sortedTurns, 0.99) + offset) * scale,
+                (sortedTurns[n - 1] + offset) * scale);
+    }
+
+    private static int percentile(int[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (fraction * sorted.length))];
+    }
+}
@@ -0,0 +1,43 @@
+package com.game.memorygame;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluates as many boards at once as there are int lanes in the preferred vector shape, with the incubating Vector
+ * API. Loading this class fails unless the VM was started with {@code --add-modules jdk.incubator.vector}; the game
+ * only requires the module statically, so that launching it does not print the incubator warning.
+ */
+final class VectorBatchEvaluator implements BatchEvaluator {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = VectorSpecies.of(float.class, INTS.vectorShape());
+    private static final int INACTIVE = CardState.INACTIVE.ordinal();
+    private static final int DISABLED = CardState.DISABLED.ordinal();
+
+    private final ScalarBatchEvaluator tail = new ScalarBatchEvaluator();
+
+    @Override
+    public void evaluate(int from, int to, int groupSize, int[] nSelected, int[] firstPairIds, int[] lastPairIds,
+                         int[] matching, int[] outcomes, float[] rewards) {
+        int upperBound = from + INTS.loopBound(to - from);
+        int board = from;
+        for (; board < upperBound; board += INTS.length()) {
+            VectorMask<Integer> complete = IntVector.fromArray(INTS, nSelected, board).eq(groupSize);
+            VectorMask<Integer> isMatch = IntVector.fromArray(INTS, firstPairIds, board)
+                    .eq(IntVector.fromArray(INTS, lastPairIds, board))
+                    .and(IntVector.fromArray(INTS, matching, board).compare(VectorOperators.NE, 0))
+                    .and(complete);
+            IntVector.broadcast(INTS, NO_OUTCOME)
+                    .blend(INACTIVE, complete)
+                    .blend(DISABLED, isMatch)
+                    .intoArray(outcomes, board);
+            FloatVector.fromArray(FLOATS, rewards, board)
+                    .blend(VectorEnvironment.MATCH_REWARD, isMatch.cast(FLOATS))
+                    .intoArray(rewards, board);
+        }
+        tail.evaluate(board, to, groupSize, nSelected, firstPairIds, lastPairIds, matching, outcomes, rewards);
+    }
+}
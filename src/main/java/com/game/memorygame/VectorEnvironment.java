@@ -0,0 +1,287 @@
+package com.game.memorygame;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Batched environment for training agents: steps many independent boards at once, Gym style. Every board holds the
+ * same number of slots; the boards are stored as flat arrays in which board b owns the slots
+ * [b * nSlots, (b + 1) * nSlots), and steps write into buffers allocated once, so stepping allocates nothing.
+ * <p>
+ * Each step turns over one card on every board. The card's pair id is the observation, and a selection is evaluated
+ * as soon as it is complete, as in a speed run, so the cards of a mismatch are hidden again by the next step. Finished
+ * boards are dealt a new game within the same step, from a seed derived from the environment seed, the board and the
+ * episode, so a run is reproducible whatever the number of threads.
+ * <p>
+ * The buffers returned by the getters are live: they are overwritten by the next step and must not be modified.
+ */
+final class VectorEnvironment {
+    /** reward for completing a group of matching cards */
+    static final float MATCH_REWARD = 1;
+    /** reward for choosing a slot that is out of range, already selected or already matched */
+    static final float INVALID_ACTION_REWARD = -1;
+    /** observation for an invalid action */
+    static final int NO_CARD = -1;
+
+    /** boards stepped in a row by one task */
+    private static final int MIN_BOARDS_PER_TASK = 1024;
+    private static final byte ACTIVE = (byte) CardState.ACTIVE.ordinal();
+    private static final byte INACTIVE = (byte) CardState.INACTIVE.ordinal();
+    private static final byte DISABLED = (byte) CardState.DISABLED.ordinal();
+
+    private final int nBoards;
+    private final int nSlots;
+    private final int groupSize;
+    private final long seed;
+
+    private final int[] pairIds;
+    private final byte[] states;
+    // the slots selected on board b are selectedSlots[b * groupSize, b * groupSize + nSelected[b])
+    private final int[] selectedSlots;
+    private final int[] nSelected;
+    // pair id of the first card selected on each board, and whether every card selected since matched it
+    private final int[] firstPairIds;
+    private final int[] matching;
+    private final int[] outcomes;
+    private final int[] nDisabled;
+    private final int[] turns;
+    private final int[] episodes;
+    private final long[] episodeSeeds;
+
+    private final int[] observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private final int[] episodeTurns;
+
+    private final BatchEvaluator evaluator;
+    private final StepTask[] tasks;
+    private int[] actions;
+
+    /**
+     * @param nBoards number of boards stepped together
+     * @param nSlots number of slots on each board
+     * @param groupSize number of cards sharing each pair id
+     * @param seed seed from which the deal of every episode of every board is derived
+     */
+    VectorEnvironment(int nBoards, int nSlots, int groupSize, long seed) {
+        this(nBoards, nSlots, groupSize, seed, BatchEvaluator.create());
+    }
+
+    /**
+     * @param evaluator decides which completed selections matched, see {@link BatchEvaluator#create()}
+     */
+    VectorEnvironment(int nBoards, int nSlots, int groupSize, long seed, BatchEvaluator evaluator) {
+        if (groupSize < 2 || nSlots % groupSize != 0) {
+            throw new IllegalArgumentException(nSlots + " cards cannot be dealt in groups of " + groupSize);
+        }
+        this.nBoards = nBoards;
+        this.nSlots = nSlots;
+        this.groupSize = groupSize;
+        this.seed = seed;
+        this.evaluator = evaluator;
+        pairIds = new int[Math.multiplyExact(nBoards, nSlots)];
+        states = new byte[pairIds.length];
+        selectedSlots = new int[nBoards * groupSize];
+        nSelected = new int[nBoards];
+        firstPairIds = new int[nBoards];
+        matching = new int[nBoards];
+        outcomes = new int[nBoards];
+        nDisabled = new int[nBoards];
+        turns = new int[nBoards];
+        episodes = new int[nBoards];
+        episodeSeeds = new long[nBoards];
+        observations = new int[nBoards];
+        rewards = new float[nBoards];
+        dones = new boolean[nBoards];
+        episodeTurns = new int[nBoards];
+
+        // a few tasks per core, so that cores finishing early can steal
+        int nTargetTasks = 4 * ForkJoinPool.getCommonPoolParallelism();
+        int boardsPerTask = Math.max(MIN_BOARDS_PER_TASK, (nBoards + nTargetTasks - 1) / nTargetTasks);
+        tasks = new StepTask[Math.max(1, (nBoards + boardsPerTask - 1) / boardsPerTask)];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new StepTask(i * boardsPerTask, Math.min(nBoards, (i + 1) * boardsPerTask));
+        }
+        reset();
+    }
+
+    /**
+     * Deals the first episode on every board again and clears the step buffers
+     */
+    void reset() {
+        Arrays.fill(episodes, 0);
+        for (StepTask task : tasks) {
+            for (int board = task.from; board < task.to; board++) {
+                task.newEpisode(board);
+            }
+        }
+        Arrays.fill(observations, NO_CARD);
+        Arrays.fill(rewards, 0);
+        Arrays.fill(dones, false);
+        Arrays.fill(episodeTurns, 0);
+    }
+
+    /**
+     * Turns over one card on every board, in parallel when there are enough boards, and fills the observation,
+     * reward, done and episode turn buffers
+     * @param actions slot to turn over on each board
+     */
+    void step(int[] actions) {
+        if (actions.length != nBoards) {
+            throw new IllegalArgumentException("expected " + nBoards + " actions, got " + actions.length);
+        }
+        this.actions = actions;
+        if (tasks.length == 1) {
+            tasks[0].compute();
+        } else {
+            for (StepTask task : tasks) {
+                task.reinitialize();
+            }
+            ForkJoinTask.invokeAll(tasks);
+        }
+        this.actions = null;
+    }
+
+    int getNumberOfBoards() {
+        return nBoards;
+    }
+
+    int getNumberOfSlots() {
+        return nSlots;
+    }
+
+    int getGroupSize() {
+        return groupSize;
+    }
+
+    /**
+     * @return state of every slot of every board as a {@link CardState} ordinal, board b at [b * nSlots, (b + 1) * nSlots)
+     */
+    byte[] getStates() {
+        return states;
+    }
+
+    /**
+     * @return pair id of the card turned over on each board by the last step, or {@link #NO_CARD}
+     */
+    int[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return reward earned on each board by the last step
+     */
+    float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * @return whether the last step finished the game on each board; finished boards have already been dealt again
+     */
+    boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * @return number of turns of the game finished by the last step on each board, valid where done
+     */
+    int[] getEpisodeTurns() {
+        return episodeTurns;
+    }
+
+    /**
+     * @return seed of the game currently dealt on a board; {@link Dealer#dealForSeed} deals boards of fewer than
+     *         {@link Dealer#PARALLEL_DEALING_THRESHOLD} cards the same way from it
+     */
+    long getEpisodeSeed(int board) {
+        return episodeSeeds[board];
+    }
+
+    private long episodeSeed(int board, int episode) {
+        long boardSeed = Xoshiro256PlusPlus.mix64(seed + (board * Xoshiro256PlusPlus.GOLDEN_GAMMA));
+        return Xoshiro256PlusPlus.mix64(boardSeed + (episode * Xoshiro256PlusPlus.GOLDEN_GAMMA));
+    }
+
+    /**
+     * Steps a fixed range of boards; created once and reinitialized before every step
+     */
+    private final class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final Xoshiro256PlusPlus random = new Xoshiro256PlusPlus(0);
+
+        StepTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            for (int board = from; board < to; board++) {
+                flip(board, actions[board]);
+            }
+            evaluator.evaluate(from, to, groupSize, nSelected, firstPairIds, observations, matching, outcomes, rewards);
+            for (int board = from; board < to; board++) {
+                if (outcomes[board] != BatchEvaluator.NO_OUTCOME) {
+                    endTurn(board, (byte) outcomes[board]);
+                }
+            }
+        }
+
+        private void flip(int board, int slot) {
+            int base = board * nSlots;
+            dones[board] = false;
+            if (slot < 0 || slot >= nSlots || states[base + slot] != INACTIVE) {
+                observations[board] = NO_CARD;
+                rewards[board] = INVALID_ACTION_REWARD;
+                return;
+            }
+
+            int pairId = pairIds[base + slot];
+            states[base + slot] = ACTIVE;
+            observations[board] = pairId;
+            rewards[board] = 0;
+            int n = nSelected[board]++;
+            selectedSlots[(board * groupSize) + n] = slot;
+            if (n == 0) {
+                firstPairIds[board] = pairId;
+                matching[board] = 1;
+            } else if (n < groupSize - 1 && pairId != firstPairIds[board]) {
+                // the last card of the selection is compared by the evaluator
+                matching[board] = 0;
+            }
+        }
+
+        private void endTurn(int board, byte outcome) {
+            int base = board * nSlots;
+            int selection = board * groupSize;
+            for (int i = selection; i < selection + groupSize; i++) {
+                states[base + selectedSlots[i]] = outcome;
+            }
+            nSelected[board] = 0;
+            turns[board]++;
+            if (outcome != DISABLED) return;
+
+            nDisabled[board] += groupSize;
+            if (nDisabled[board] == nSlots) {
+                dones[board] = true;
+                episodeTurns[board] = turns[board];
+                episodes[board]++;
+                newEpisode(board);
+            }
+        }
+
+        private void newEpisode(int board) {
+            int base = board * nSlots;
+            episodeSeeds[board] = episodeSeed(board, episodes[board]);
+            random.setSeed(episodeSeeds[board]);
+            Dealer.deal(pairIds, base, base + nSlots, groupSize, random);
+            Arrays.fill(states, base, base + nSlots, INACTIVE);
+            nSelected[board] = 0;
+            nDisabled[board] = 0;
+            turns[board] = 0;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.game.memorygame;
+
+import javafx.scene.Node;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.input.ZoomEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.shape.Rectangle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows a zoomable, pannable window onto the board. Card nodes exist only for the slots inside the window and are
+ * recycled as it moves, like the cells of a virtualized ListView, so the node count depends on the window size only.
+ * Drag or scroll to pan, scroll with Ctrl held or pinch to zoom.
+ */
+class ViewportBoardRenderer extends Region implements BoardRenderer {
+    static final double DEFAULT_CELL_SIZE = 48;
+    static final double MIN_CELL_SIZE = 16;
+    static final double MAX_CELL_SIZE = 160;
+    private static final double ZOOM_STEP = 1.1;
+    private static final double CARD_INSET = 4.0;
+
+    private final int nCols;
+    private final int nRows;
+    private final GameEngine engine;
+    private CardPalette palette;
+
+    // cards.get(i) shows the i-th visible slot, in column-major order; the cards past nVisibleCards are hidden
+    private final List<Card> cards = new ArrayList<>();
+    private int nVisibleCards;
+    private int firstCol;
+    private int firstRow;
+    private int nVisibleCols;
+    private int nVisibleRows;
+
+    private double cellSize = DEFAULT_CELL_SIZE;
+    private double panX;
+    private double panY;
+    private double dragX;
+    private double dragY;
+
+    ViewportBoardRenderer(int nCols, int nRows, GameEngine engine, CardPalette palette) {
+        super();
+        this.nCols = nCols;
+        this.nRows = nRows;
+        this.engine = engine;
+        this.palette = palette;
+
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        setOnMousePressed(mouseEvent -> {
+            dragX = mouseEvent.getX();
+            dragY = mouseEvent.getY();
+        });
+        setOnMouseDragged(mouseEvent -> {
+            panBy(dragX - mouseEvent.getX(), dragY - mouseEvent.getY());
+            dragX = mouseEvent.getX();
+            dragY = mouseEvent.getY();
+        });
+        // the click ending a drag must not select the card under the cursor
+        addEventHandler(MouseEvent.MOUSE_CLICKED, mouseEvent -> {
+            if (!mouseEvent.isStillSincePress()) mouseEvent.consume();
+        });
+        addEventHandler(ScrollEvent.SCROLL, scrollEvent -> {
+            if (scrollEvent.isControlDown()) {
+                zoomBy(scrollEvent.getDeltaY() > 0 ? ZOOM_STEP : 1 / ZOOM_STEP, scrollEvent.getX(), scrollEvent.getY());
+            } else {
+                panBy(-scrollEvent.getDeltaX(), -scrollEvent.getDeltaY());
+            }
+            scrollEvent.consume();
+        });
+        addEventHandler(ZoomEvent.ZOOM, zoomEvent -> {
+            zoomBy(zoomEvent.getZoomFactor(), zoomEvent.getX(), zoomEvent.getY());
+            zoomEvent.consume();
+        });
+    }
+
+    @Override
+    public Node getNode() {
+        return this;
+    }
+
+    @Override
+    public void slotChanged(int slot, CardState state) {
+        int col = slot / nRows;
+        int row = slot % nRows;
+        if (col < firstCol || col >= firstCol + nVisibleCols || row < firstRow || row >= firstRow + nVisibleRows) {
+            return;
+        }
+        Card card = cards.get(((col - firstCol) * nVisibleRows) + (row - firstRow));
+        card.show(state, engine.getPairId(slot), palette);
+    }
+
+    @Override
+    public void reset(CardPalette palette) {
+        this.palette = palette;
+        requestLayout();
+    }
+
+    @Override
+    public int slotAt(double x, double y) {
+        double boardX = x + panX;
+        double boardY = y + panY;
+        int col = (int) Math.floor(boardX / cellSize);
+        int row = (int) Math.floor(boardY / cellSize);
+        if (col < 0 || col >= nCols || row < 0 || row >= nRows) return -1;
+
+        // clicks on the gap around a card do not select it
+        double inset = inset();
+        double cellX = boardX - (col * cellSize);
+        double cellY = boardY - (row * cellSize);
+        if (cellX < inset || cellX >= cellSize - inset || cellY < inset || cellY >= cellSize - inset) return -1;
+        return (col * nRows) + row;
+    }
+
+    /**
+     * Scales the cards around the given point, which keeps showing the same part of the board
+     */
+    void zoomBy(double factor, double x, double y) {
+        double newCellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, cellSize * factor));
+        double scale = newCellSize / cellSize;
+        panX = ((x + panX) * scale) - x;
+        panY = ((y + panY) * scale) - y;
+        cellSize = newCellSize;
+        requestLayout();
+    }
+
+    void panBy(double dx, double dy) {
+        panX += dx;
+        panY += dy;
+        requestLayout();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        panX = Math.max(0, Math.min(panX, (nCols * cellSize) - width));
+        panY = Math.max(0, Math.min(panY, (nRows * cellSize) - height));
+
+        firstCol = (int) (panX / cellSize);
+        firstRow = (int) (panY / cellSize);
+        nVisibleCols = Math.max(0, Math.min(nCols, (int) Math.ceil((panX + width) / cellSize)) - firstCol);
+        nVisibleRows = Math.max(0, Math.min(nRows, (int) Math.ceil((panY + height) / cellSize)) - firstRow);
+
+        int nNeededCards = nVisibleCols * nVisibleRows;
+        while (cards.size() < nNeededCards) {
+            Card card = new Card();
+            cards.add(card);
+            getChildren().add(card);
+        }
+        for (int i = nNeededCards; i < nVisibleCards; i++) {
+            cards.get(i).setVisible(false);
+        }
+        nVisibleCards = nNeededCards;
+
+        double inset = inset();
+        int i = 0;
+        for (int col = firstCol; col < firstCol + nVisibleCols; col++) {
+            for (int row = firstRow; row < firstRow + nVisibleRows; row++) {
+                int slot = (col * nRows) + row;
+                Card card = cards.get(i++);
+                card.setVisible(true);
+                card.show(engine.getState(slot), engine.getPairId(slot), palette);
+                card.resizeRelocate(
+                        snapPositionX((col * cellSize) - panX + inset),
+                        snapPositionY((row * cellSize) - panY + inset),
+                        snapSizeX(cellSize - (2 * inset)),
+                        snapSizeY(cellSize - (2 * inset)));
+            }
+        }
+    }
+
+    private double inset() {
+        return Math.min(CARD_INSET, Math.floor(cellSize / 8));
+    }
+}
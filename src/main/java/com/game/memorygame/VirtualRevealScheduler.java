@@ -0,0 +1,59 @@
+package com.game.memorygame;
+
+import javafx.util.Duration;
+
+/**
+ * Schedules on a virtual clock that only moves when told to, so tests and simulations can play through
+ * reveal delays instantly. Needs neither the FX toolkit nor the FX application thread.
+ */
+class VirtualRevealScheduler implements RevealScheduler {
+    private double nowMillis;
+    private double dueMillis;
+    private Runnable task;
+
+    @Override
+    public void schedule(Duration delay, Runnable task) {
+        this.task = task;
+        dueMillis = nowMillis + delay.toMillis();
+    }
+
+    @Override
+    public void cancel() {
+        task = null;
+    }
+
+    boolean hasPendingTask() {
+        return task != null;
+    }
+
+    Duration getNow() {
+        return Duration.millis(nowMillis);
+    }
+
+    /**
+     * Moves the clock forward, running the pending task if it becomes due
+     */
+    void advance(Duration duration) {
+        nowMillis += duration.toMillis();
+        if (task != null && dueMillis <= nowMillis) {
+            runTask();
+        }
+    }
+
+    /**
+     * Moves the clock to the time the pending task is due and runs it
+     * @return whether there was a task to run
+     */
+    boolean runPendingTask() {
+        if (task == null) return false;
+        nowMillis = Math.max(nowMillis, dueMillis);
+        runTask();
+        return true;
+    }
+
+    private void runTask() {
+        Runnable dueTask = task;
+        task = null;
+        dueTask.run();
+    }
+}
@@ -0,0 +1,297 @@
+package com.game.memorygame;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary protocol between {@link GameServer} and its clients. A message is a type byte followed by its fields; ids,
+ * slots, counts and scores are unsigned LEB128 varints, so most fields take a single byte, and colors are fixed-size
+ * big-endian values. Messages are not length-prefixed: a decoder stops at the first incomplete message and
+ * leaves its bytes in the buffer for the next read.
+ * <p>
+ * Encoders put messages directly into the buffers of a connection and decoders call back a handler with the decoded
+ * fields, so no object is created per message. The handlers receive an opaque context, typically the connection the
+ * bytes came from.
+ */
+final class WireProtocol {
+    // requests, from clients to the server
+    /** nCols, nRows, groupSize, nPlayers: create a game and join it as player 0 */
+    static final byte CREATE = 1;
+    /** game: join a game, which starts once every player has joined */
+    static final byte JOIN = 2;
+    /** game, slot: turn over a card on your turn */
+    static final byte CARD_SELECTED = 3;
+
+    // replies and events, from the server to clients
+    /** game: the game created by the last CREATE of this connection */
+    static final byte CREATED = 16;
+    /** game, player: the player number got by the last JOIN of this connection */
+    static final byte JOINED = 17;
+    /**
+     * game, nCols, nRows, groupSize, nPlayers: the deal stays on the server, which only tells the pair id and color of
+     * each card as it is revealed, so a client cannot know a card before it is turned over
+     */
+    static final byte GAME_STARTED = 18;
+    /** game, player, slot, pairId, ARGB color of the pair */
+    static final byte CARD_REVEALED = 19;
+    /** game, player, score of the player */
+    static final byte MATCH = 20;
+    /** game, player whose turn it is now */
+    static final byte MISMATCH = 21;
+    /** game: every card was matched, or a player left */
+    static final byte GAME_OVER = 22;
+    /** game or 0, error code: the last request was refused */
+    static final byte ERROR = 23;
+
+    /** the request was malformed or named something that does not exist */
+    static final int ERROR_INVALID_REQUEST = 1;
+    /** the request cannot be carried out in the current state of the game */
+    static final int ERROR_REJECTED = 2;
+
+    /** upper bound on the encoded size of any message */
+    static final int MAX_MESSAGE_SIZE = 64;
+
+    private static final int INCOMPLETE = -1;
+
+    private WireProtocol() {
+    }
+
+    interface RequestHandler<C> {
+        void create(C context, int nCols, int nRows, int groupSize, int nPlayers);
+
+        void join(C context, int gameId);
+
+        void cardSelected(C context, int gameId, int slot);
+    }
+
+    interface EventHandler<C> {
+        void created(C context, int gameId);
+
+        void joined(C context, int gameId, int player);
+
+        void gameStarted(C context, int gameId, int nCols, int nRows, int groupSize, int nPlayers);
+
+        void cardRevealed(C context, int gameId, int player, int slot, int pairId, int argb);
+
+        void match(C context, int gameId, int player, int score);
+
+        void mismatch(C context, int gameId, int nextPlayer);
+
+        void gameOver(C context, int gameId);
+
+        void error(C context, int gameId, int errorCode);
+    }
+
+    static void putCreate(ByteBuffer out, int nCols, int nRows, int groupSize, int nPlayers) {
+        out.put(CREATE);
+        putVarint(out, nCols);
+        putVarint(out, nRows);
+        putVarint(out, groupSize);
+        putVarint(out, nPlayers);
+    }
+
+    static void putJoin(ByteBuffer out, int gameId) {
+        out.put(JOIN);
+        putVarint(out, gameId);
+    }
+
+    static void putCardSelected(ByteBuffer out, int gameId, int slot) {
+        out.put(CARD_SELECTED);
+        putVarint(out, gameId);
+        putVarint(out, slot);
+    }
+
+    static void putCreated(ByteBuffer out, int gameId) {
+        out.put(CREATED);
+        putVarint(out, gameId);
+    }
+
+    static void putJoined(ByteBuffer out, int gameId, int player) {
+        out.put(JOINED);
+        putVarint(out, gameId);
+        putVarint(out, player);
+    }
+
+    static void putGameStarted(ByteBuffer out, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+        out.put(GAME_STARTED);
+        putVarint(out, gameId);
+        putVarint(out, nCols);
+        putVarint(out, nRows);
+        putVarint(out, groupSize);
+        putVarint(out, nPlayers);
+    }
+
+    static void putCardRevealed(ByteBuffer out, int gameId, int player, int slot, int pairId, int argb) {
+        out.put(CARD_REVEALED);
+        putVarint(out, gameId);
+        putVarint(out, player);
+        putVarint(out, slot);
+        putVarint(out, pairId);
+        out.putInt(argb);
+    }
+
+    static void putMatch(ByteBuffer out, int gameId, int player, int score) {
+        out.put(MATCH);
+        putVarint(out, gameId);
+        putVarint(out, player);
+        putVarint(out, score);
+    }
+
+    static void putMismatch(ByteBuffer out, int gameId, int nextPlayer) {
+        out.put(MISMATCH);
+        putVarint(out, gameId);
+        putVarint(out, nextPlayer);
+    }
+
+    static void putGameOver(ByteBuffer out, int gameId) {
+        out.put(GAME_OVER);
+        putVarint(out, gameId);
+    }
+
+    static void putError(ByteBuffer out, int gameId, int errorCode) {
+        out.put(ERROR);
+        putVarint(out, gameId);
+        putVarint(out, errorCode);
+    }
+
+    /**
+     * Decodes every complete request in the buffer, leaving its position at the start of the incomplete one, if any
+     * @throws ProtocolException if the bytes are not a request
+     */
+    static <C> void decodeRequests(ByteBuffer in, C context, RequestHandler<C> handler) throws ProtocolException {
+        while (in.hasRemaining()) {
+            int start = in.position();
+            if (!decodeRequest(in, context, handler)) {
+                in.position(start);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the message is incomplete; once a field is incomplete the buffer is exhausted, so checking the
+     *         last field is enough
+     */
+    private static <C> boolean decodeRequest(ByteBuffer in, C context, RequestHandler<C> handler)
+            throws ProtocolException {
+        byte type = in.get();
+        switch (type) {
+            case CREATE -> {
+                int nCols = getVarint(in);
+                int nRows = getVarint(in);
+                int groupSize = getVarint(in);
+                int nPlayers = getVarint(in);
+                if (nPlayers == INCOMPLETE) return false;
+                handler.create(context, nCols, nRows, groupSize, nPlayers);
+            }
+            case JOIN -> {
+                int gameId = getVarint(in);
+                if (gameId == INCOMPLETE) return false;
+                handler.join(context, gameId);
+            }
+            case CARD_SELECTED -> {
+                int gameId = getVarint(in);
+                int slot = getVarint(in);
+                if (slot == INCOMPLETE) return false;
+                handler.cardSelected(context, gameId, slot);
+            }
+            default -> throw new ProtocolException("unknown request type " + type);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes every complete reply or event in the buffer, leaving its position at the start of the incomplete one,
+     * if any
+     * @throws ProtocolException if the bytes are not a reply or event
+     */
+    static <C> void decodeEvents(ByteBuffer in, C context, EventHandler<C> handler) throws ProtocolException {
+        while (in.hasRemaining()) {
+            int start = in.position();
+            if (!decodeEvent(in, context, handler)) {
+                in.position(start);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return false if the message is incomplete, see {@link #decodeRequest}
+     */
+    private static <C> boolean decodeEvent(ByteBuffer in, C context, EventHandler<C> handler) throws ProtocolException {
+        byte type = in.get();
+        int gameId = getVarint(in);
+        switch (type) {
+            case CREATED -> {
+                if (gameId == INCOMPLETE) return false;
+                handler.created(context, gameId);
+            }
+            case JOINED -> {
+                int player = getVarint(in);
+                if (player == INCOMPLETE) return false;
+                handler.joined(context, gameId, player);
+            }
+            case GAME_STARTED -> {
+                int nCols = getVarint(in);
+                int nRows = getVarint(in);
+                int groupSize = getVarint(in);
+                int nPlayers = getVarint(in);
+                if (nPlayers == INCOMPLETE) return false;
+                handler.gameStarted(context, gameId, nCols, nRows, groupSize, nPlayers);
+            }
+            case CARD_REVEALED -> {
+                int player = getVarint(in);
+                int slot = getVarint(in);
+                int pairId = getVarint(in);
+                if (pairId == INCOMPLETE || in.remaining() < Integer.BYTES) return false;
+                handler.cardRevealed(context, gameId, player, slot, pairId, in.getInt());
+            }
+            case MATCH -> {
+                int player = getVarint(in);
+                int score = getVarint(in);
+                if (score == INCOMPLETE) return false;
+                handler.match(context, gameId, player, score);
+            }
+            case MISMATCH -> {
+                int nextPlayer = getVarint(in);
+                if (nextPlayer == INCOMPLETE) return false;
+                handler.mismatch(context, gameId, nextPlayer);
+            }
+            case GAME_OVER -> {
+                if (gameId == INCOMPLETE) return false;
+                handler.gameOver(context, gameId);
+            }
+            case ERROR -> {
+                int errorCode = getVarint(in);
+                if (errorCode == INCOMPLETE) return false;
+                handler.error(context, gameId, errorCode);
+            }
+            default -> throw new ProtocolException("unknown event type " + type);
+        }
+        return true;
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * @return the varint at the position of the buffer, or {@link #INCOMPLETE} if the buffer ends before it does
+     * @throws ProtocolException if the varint does not fit in a non-negative int
+     */
+    static int getVarint(ByteBuffer in) throws ProtocolException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!in.hasRemaining()) return INCOMPLETE;
+            byte b = in.get();
+            if (shift == 28 && (b & 0xF8) != 0) break; // more than 31 bits
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new ProtocolException("varint out of range");
+    }
+}
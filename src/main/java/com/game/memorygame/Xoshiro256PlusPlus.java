@@ -0,0 +1,58 @@
+package com.game.memorygame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The xoshiro256++ generator by Blackman and Vigna, seeded through SplitMix64. Unlike the generators of the JDK,
+ * its output for a given seed is fixed by this implementation.
+ */
+final class Xoshiro256PlusPlus implements RandomGenerator {
+    /** odd constant of SplitMix64, 2^64 over the golden ratio; adding multiples of it spreads related seeds apart */
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    Xoshiro256PlusPlus(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Restarts the generator on the sequence of a new seed, as if it had just been created with it
+     */
+    void setSeed(long seed) {
+        s0 = mix64(seed += GOLDEN_GAMMA);
+        s1 = mix64(seed += GOLDEN_GAMMA);
+        s2 = mix64(seed += GOLDEN_GAMMA);
+        s3 = mix64(seed + GOLDEN_GAMMA);
+    }
+
+    /**
+     * The SplitMix64 output function; a bijective mix of all 64 bits of its input
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+}
@@ -1,6 +1,8 @@
 module com.game.memorygame {
     requires javafx.controls;
     requires javafx.fxml;
+    // only resolved when added with --add-modules, so that the game does not warn about an incubator module
+    requires static jdk.incubator.vector;
 
 
     opens com.game.memorygame to javafx.fxml;
@@ -0,0 +1,93 @@
+package com.game.memorygame;
+
+import jdk.incubator.vector.IntVector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the evaluators on random batches in the states {@link VectorEnvironment} leaves boards in after flipping
+ */
+class BatchEvaluatorTest {
+    private static final int LANES = IntVector.SPECIES_PREFERRED.length();
+
+    @Test
+    void createUsesTheVectorApiWhenItsModuleIsAdded() {
+        assertTrue(BatchEvaluator.create() instanceof VectorBatchEvaluator);
+    }
+
+    @Test
+    void vectorEvaluationMatchesScalarEvaluation() {
+        SplittableRandom random = new SplittableRandom(42);
+        BatchEvaluator scalar = new ScalarBatchEvaluator();
+        BatchEvaluator vector = new VectorBatchEvaluator();
+        for (int batch = 0; batch < 10_000; batch++) {
+            int groupSize = 2 + random.nextInt(3);
+            // ranges start anywhere and are rarely a multiple of the vector length, so the tail lanes are covered
+            int from = random.nextInt(2 * LANES);
+            int to = from + random.nextInt(4 * LANES);
+            int nBoards = to + random.nextInt(LANES);
+            int[] nSelected = new int[nBoards];
+            int[] firstPairIds = new int[nBoards];
+            int[] lastPairIds = new int[nBoards];
+            int[] matching = new int[nBoards];
+            float[] rewards = new float[nBoards];
+            for (int board = 0; board < nBoards; board++) {
+                firstPairIds[board] = random.nextInt(4);
+                matching[board] = random.nextInt(2);
+                if (random.nextInt(4) == 0) {
+                    // an invalid slot turns over nothing, so it never completes the selection
+                    nSelected[board] = random.nextInt(groupSize);
+                    lastPairIds[board] = VectorEnvironment.NO_CARD;
+                    rewards[board] = VectorEnvironment.INVALID_ACTION_REWARD;
+                } else {
+                    nSelected[board] = 1 + random.nextInt(groupSize);
+                    lastPairIds[board] = random.nextInt(4);
+                }
+            }
+            int[] scalarOutcomes = new int[nBoards];
+            int[] vectorOutcomes = new int[nBoards];
+            Arrays.fill(scalarOutcomes, Integer.MIN_VALUE);
+            Arrays.fill(vectorOutcomes, Integer.MIN_VALUE);
+            float[] scalarRewards = rewards.clone();
+            float[] vectorRewards = rewards.clone();
+
+            scalar.evaluate(from, to, groupSize, nSelected, firstPairIds, lastPairIds, matching, scalarOutcomes,
+                    scalarRewards);
+            vector.evaluate(from, to, groupSize, nSelected, firstPairIds, lastPairIds, matching, vectorOutcomes,
+                    vectorRewards);
+
+            String batchName = "batch " + batch + " of boards [" + from + ", " + to + ")";
+            assertArrayEquals(scalarOutcomes, vectorOutcomes, batchName);
+            assertArrayEquals(scalarRewards, vectorRewards, batchName);
+        }
+    }
+
+    @Test
+    void boardsOutsideTheRangeAreLeftAlone() {
+        int nBoards = 3 * LANES + 1;
+        int[] nSelected = new int[nBoards];
+        Arrays.fill(nSelected, 2);
+        int[] pairIds = new int[nBoards];
+        int[] matching = new int[nBoards];
+        Arrays.fill(matching, 1);
+        int[] outcomes = new int[nBoards];
+        Arrays.fill(outcomes, Integer.MIN_VALUE);
+        float[] rewards = new float[nBoards];
+
+        new VectorBatchEvaluator().evaluate(1, nBoards - 1, 2, nSelected, pairIds, pairIds, matching, outcomes,
+                rewards);
+
+        assertEquals(Integer.MIN_VALUE, outcomes[0]);
+        assertEquals(Integer.MIN_VALUE, outcomes[nBoards - 1]);
+        assertEquals(0, rewards[0]);
+        assertEquals(0, rewards[nBoards - 1]);
+        for (int board = 1; board < nBoards - 1; board++) {
+            assertEquals(CardState.DISABLED.ordinal(), outcomes[board]);
+            assertEquals(VectorEnvironment.MATCH_REWARD, rewards[board]);
+        }
+    }
+}
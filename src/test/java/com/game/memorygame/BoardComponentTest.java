@@ -0,0 +1,178 @@
+package com.game.memorygame;
+
+import javafx.util.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays through BoardComponent's event handler with a virtual clock, so reveal delays pass instantly and no FX
+ * application thread is needed
+ */
+class BoardComponentTest {
+    private static final long SEED = 42;
+
+    private VirtualRevealScheduler revealScheduler;
+    private BoardComponent board;
+    private GameEngine engine;
+
+    @BeforeEach
+    void createBoard() {
+        revealScheduler = new VirtualRevealScheduler();
+        board = new BoardComponent(6, 5, GameEngine.DEFAULT_GROUP_SIZE, SEED, BoardComponent.RenderMode.NODES,
+                revealScheduler);
+        engine = board.getEngine();
+    }
+
+    @Test
+    void fullGameIsPlayedThroughTheHandler() {
+        int[] slotsByPair = slotsByPair(engine);
+        int nTurns = 0;
+        for (int first = 0; first < slotsByPair.length; first += 2) {
+            select(slotsByPair[first]);
+            select(slotsByPair[first + 1]);
+            assertFalse(board.isInteractionEnabled(), "clicks are ignored while the selection is shown");
+            assertTrue(revealScheduler.runPendingTask());
+            assertTrue(board.isInteractionEnabled());
+            assertEquals(CardState.DISABLED, engine.getState(slotsByPair[first]));
+            nTurns++;
+        }
+
+        assertTrue(engine.isGameOver());
+        assertEquals(15, nTurns);
+        assertEquals(Duration.seconds(15), revealScheduler.getNow());
+    }
+
+    @Test
+    void mismatchIsHiddenOnceTheRevealDelayHasPassed() {
+        board.setRevealDelay(Duration.millis(500));
+        int mismatchSlot = mismatchSlotOf(0);
+
+        select(0);
+        select(mismatchSlot);
+        revealScheduler.advance(Duration.millis(499));
+        assertEquals(CardState.ACTIVE, engine.getState(0));
+
+        revealScheduler.advance(Duration.millis(1));
+        assertEquals(CardState.INACTIVE, engine.getState(0));
+        assertEquals(CardState.INACTIVE, engine.getState(mismatchSlot));
+        assertTrue(board.isInteractionEnabled());
+    }
+
+    @Test
+    void speedRunNeedsNoScheduledTask() {
+        board.setSpeedRun(true);
+        int mismatchSlot = mismatchSlotOf(0);
+
+        select(0);
+        select(mismatchSlot);
+        assertFalse(revealScheduler.hasPendingTask());
+        assertEquals(CardState.ACTIVE, engine.getState(0), "a mismatch stays shown until the next click");
+
+        select(0);
+        assertEquals(CardState.INACTIVE, engine.getState(mismatchSlot));
+        select(matchingSlotOf(0));
+        assertEquals(CardState.DISABLED, engine.getState(0), "a match is disabled at once");
+        assertFalse(revealScheduler.hasPendingTask());
+    }
+
+    @Test
+    void restartDealsTheSeedAgainAndCancelsThePendingTurn() {
+        int[] firstDeal = pairIds(engine);
+        select(0);
+        select(mismatchSlotOf(0));
+
+        board.restart(SEED);
+
+        assertFalse(revealScheduler.hasPendingTask());
+        assertTrue(board.isInteractionEnabled());
+        assertArrayEquals(firstDeal, pairIds(engine));
+        for (int slot = 0; slot < engine.getNumberOfSlots(); slot++) {
+            assertEquals(CardState.INACTIVE, engine.getState(slot));
+        }
+    }
+
+    @Test
+    void stateBackgroundsAreNotEvictedByPairColors() {
+        board = new BoardComponent(100, 100, GameEngine.DEFAULT_GROUP_SIZE, SEED, BoardComponent.RenderMode.NODES,
+                revealScheduler);
+        engine = board.getEngine();
+        CardPalette palette = board.getPalette();
+        assertTrue(engine.getNumberOfSlots() / 2 > CardBackgrounds.MAX_CACHED_BACKGROUNDS);
+        // every pair color goes through the cache, taking the entries of the colors it collides with
+        for (int pairId = 0; pairId < engine.getNumberOfSlots() / 2; pairId++) {
+            CardBackgrounds.of(palette.argbOf(pairId));
+        }
+        // only the two pair colors shown below may be allocated, so they are picked to be cached together
+        int argb = palette.argbOf(engine.getPairId(0));
+        int mismatchSlot = 0;
+        long allocationCount;
+        do {
+            mismatchSlot = nextMismatchSlotOf(0, mismatchSlot);
+            int mismatchArgb = palette.argbOf(engine.getPairId(mismatchSlot));
+            CardBackgrounds.of(argb);
+            CardBackgrounds.of(mismatchArgb);
+            allocationCount = CardBackgrounds.getAllocationCount();
+            CardBackgrounds.of(argb);
+            CardBackgrounds.of(mismatchArgb);
+        } while (CardBackgrounds.getAllocationCount() != allocationCount);
+
+        select(0);
+        select(mismatchSlot);
+        assertTrue(revealScheduler.runPendingTask());
+        select(0);
+        select(matchingSlotOf(0));
+        assertTrue(revealScheduler.runPendingTask());
+        assertEquals(CardState.DISABLED, engine.getState(0));
+        board.restart(SEED);
+
+        assertEquals(allocationCount, CardBackgrounds.getAllocationCount());
+    }
+
+    private void select(int slot) {
+        board.fireEvent(new CardSelectedEvent(slot));
+    }
+
+    private int mismatchSlotOf(int slot) {
+        return nextMismatchSlotOf(slot, -1);
+    }
+
+    /**
+     * @return first slot after the given one whose card does not match the card at slot
+     */
+    private int nextMismatchSlotOf(int slot, int after) {
+        for (int other = after + 1; other < engine.getNumberOfSlots(); other++) {
+            if (engine.getPairId(other) != engine.getPairId(slot)) return other;
+        }
+        throw new IllegalStateException("no more cards mismatch slot " + slot);
+    }
+
+    private int matchingSlotOf(int slot) {
+        for (int other = 0; other < engine.getNumberOfSlots(); other++) {
+            if (other != slot && engine.getPairId(other) == engine.getPairId(slot)) return other;
+        }
+        throw new IllegalStateException("no card matches slot " + slot);
+    }
+
+    private static int[] pairIds(GameEngine engine) {
+        int[] pairIds = new int[engine.getNumberOfSlots()];
+        for (int slot = 0; slot < pairIds.length; slot++) {
+            pairIds[slot] = engine.getPairId(slot);
+        }
+        return pairIds;
+    }
+
+    /**
+     * @return slots ordered so that the cards of pair p are at [2p, 2p + 2)
+     */
+    private static int[] slotsByPair(GameEngine engine) {
+        int[] slots = new int[engine.getNumberOfSlots()];
+        int[] found = new int[slots.length / 2];
+        for (int slot = 0; slot < slots.length; slot++) {
+            int pairId = engine.getPairId(slot);
+            slots[pairId * 2 + found[pairId]++] = slot;
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,113 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays seeded headless games with each bot, both through {@link BotGame} and turn by turn to check what a bot does
+ * with the cards it has seen
+ */
+class BotPlayerTest {
+    private static final long SEED = 42;
+
+    @Test
+    void everyBotFinishesASeededGame() {
+        assertFinishesGames(seed -> new RandomBot(new Xoshiro256PlusPlus(seed)));
+        assertFinishesGames(seed -> new PerfectMemoryBot());
+        assertFinishesGames(seed -> new HumanLikeBot(new Xoshiro256PlusPlus(seed)));
+    }
+
+    @Test
+    void perfectMemoryBotNeverMismatchesOnACardItHasSeen() {
+        BotPlayer bot = new PerfectMemoryBot();
+        for (int game = 0; game < 100; game++) {
+            assertNoMismatchOnSeenCards(bot, new GameEngine(Dealer.dealForSeed(30, 2, SEED + game), 2));
+        }
+    }
+
+    @Test
+    void perfectMemoryBotAveragesTheExpectedTurnsOfOptimalPlay() {
+        double[] expectedTurnsByPairs = ExpectedTurnsSolver.solve(15);
+        assertEquals(expectedTurnsByPairs[2], averageTurns(new PerfectMemoryBot(), 4, 200_000), 0.005);
+        assertEquals(expectedTurnsByPairs[15], averageTurns(new PerfectMemoryBot(), 30, 50_000), 0.03);
+    }
+
+    @Test
+    void humanLikeBotWithoutDecayPlaysWithPerfectMemory() {
+        BotPlayer bot = new HumanLikeBot(new Xoshiro256PlusPlus(SEED), Double.POSITIVE_INFINITY, 1);
+        // on a 20x20 board random picks often land on several recalled cards in a row
+        for (int game = 0; game < 100; game++) {
+            assertNoMismatchOnSeenCards(bot, new GameEngine(Dealer.dealForSeed(400, 2, SEED + game), 2));
+        }
+        assertEquals(averageTurns(new PerfectMemoryBot(), 30, 50_000), averageTurns(bot, 30, 50_000), 0.05);
+    }
+
+    @Test
+    void humanLikeBotForgets() {
+        HumanLikeBot bot = new HumanLikeBot(new Xoshiro256PlusPlus(SEED));
+        assertTrue(averageTurns(bot, 30, 10_000) > averageTurns(new PerfectMemoryBot(), 30, 10_000) + 1);
+    }
+
+    /**
+     * Plays games of 6x5 cards and of 6x6 cards in triples dealt from successive seeds, checking that the same seed
+     * always gives the same game
+     */
+    private static void assertFinishesGames(LongFunction<BotPlayer> botForSeed) {
+        for (int game = 0; game < 100; game++) {
+            for (int groupSize = 2; groupSize <= 3; groupSize++) {
+                int nCards = groupSize == 2 ? 30 : 36;
+                int[] pairIds = Dealer.dealForSeed(nCards, groupSize, SEED + game);
+                GameEngine engine = new GameEngine(pairIds, groupSize);
+                int nTurns = BotGame.play(engine, botForSeed.apply(SEED + game));
+
+                assertTrue(engine.isGameOver());
+                assertTrue(nTurns >= nCards / groupSize);
+                engine.reset();
+                assertEquals(nTurns, BotGame.play(engine, botForSeed.apply(SEED + game)));
+            }
+        }
+    }
+
+    /**
+     * Plays a game of pairs turn by turn like {@link BotGame}, checking that both cards of a mismatched pair were new to
+     * the bot: it never turns over a card it knows does not match, and never misses a card it knows does
+     */
+    private static void assertNoMismatchOnSeenCards(BotPlayer bot, GameEngine engine) {
+        boolean[] seen = new boolean[engine.getNumberOfSlots()];
+        int[] selection = new int[2];
+        bot.reset(engine);
+        while (!engine.isGameOver()) {
+            for (int i = 0; i < selection.length; i++) {
+                selection[i] = bot.chooseSlot(engine);
+                assertNotEquals(GameEngine.FlipResult.IGNORED, engine.flip(selection[i]));
+                bot.cardRevealed(selection[i], engine.getPairId(selection[i]));
+            }
+            if (!engine.evaluateSelection()) {
+                for (int slot : selection) {
+                    assertFalse(seen[slot], "mismatched slot " + slot + ", which was seen before");
+                }
+            }
+            for (int slot : selection) {
+                seen[slot] = true;
+            }
+        }
+    }
+
+    /**
+     * @return average number of turns over games of nCards cards in pairs, each dealt from its own seed
+     */
+    private static double averageTurns(BotPlayer bot, int nCards, int nGames) {
+        int[] pairIds = new int[nCards];
+        GameEngine engine = new GameEngine(pairIds, 2);
+        long nTurns = 0;
+        for (int game = 0; game < nGames; game++) {
+            Dealer.dealForSeed(pairIds, 2, SEED + game);
+            engine.reset();
+            nTurns += BotGame.play(engine, bot);
+        }
+        return (double) nTurns / nGames;
+    }
+}
@@ -0,0 +1,82 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealerTest {
+    // large enough to be split into several shuffled ranges and merged
+    private static final int N_PARALLEL_CARDS = 8 * Dealer.SEQUENTIAL_SHUFFLE_THRESHOLD;
+
+    @Test
+    void parallelDealDependsOnlyOnTheSeed() throws Exception {
+        int[] expected = Dealer.dealParallel(N_PARALLEL_CARDS, 2, 42);
+
+        assertArrayEquals(expected, Dealer.dealParallel(N_PARALLEL_CARDS, 2, 42));
+
+        // deals running at the same time compete for the pool, so their tasks get scheduled differently
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Callable<int[]> deal = () -> Dealer.dealParallel(N_PARALLEL_CARDS, 2, 42);
+            Future<?>[] deals = new Future<?>[8];
+            for (int i = 0; i < deals.length; i++) {
+                deals[i] = executor.submit(deal);
+            }
+            for (Future<?> future : deals) {
+                assertArrayEquals(expected, (int[]) future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parallelDealsDifferBetweenSeeds() {
+        int[] deal = Dealer.dealParallel(N_PARALLEL_CARDS, 2, 42);
+        int[] otherDeal = Dealer.dealParallel(N_PARALLEL_CARDS, 2, 43);
+
+        assertFalse(Arrays.equals(deal, otherDeal));
+    }
+
+    @Test
+    void parallelDealHoldsEveryGroupOnce() {
+        for (int groupSize : new int[] {2, 3, 4}) {
+            int nCards = N_PARALLEL_CARDS / groupSize * groupSize;
+            assertGroupsComplete(Dealer.dealParallel(nCards, groupSize, 7), groupSize);
+        }
+    }
+
+    @Test
+    void sequentialDealHoldsEveryGroupOnce() {
+        assertGroupsComplete(Dealer.deal(30, 2, new Xoshiro256PlusPlus(1)), 2);
+        assertGroupsComplete(Dealer.deal(30, 3, new Xoshiro256PlusPlus(1)), 3);
+    }
+
+    @Test
+    void seedGivesTheSameDealOnEveryJvm() {
+        // fixed by the bundled generator and shuffle; a change here breaks shared seeds
+        assertArrayEquals(new int[] {3, 0, 1, 2, 5, 0, 2, 4, 3, 5, 1, 4}, Dealer.dealForSeed(12, 2, 42));
+    }
+
+    @Test
+    void cardsThatCannotBeGroupedAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Dealer.dealParallel(N_PARALLEL_CARDS + 1, 2, 1));
+        assertThrows(IllegalArgumentException.class, () -> Dealer.deal(31, 2, new Xoshiro256PlusPlus(1)));
+    }
+
+    private static void assertGroupsComplete(int[] pairIds, int groupSize) {
+        int[] counts = new int[pairIds.length / groupSize];
+        for (int pairId : pairIds) {
+            counts[pairId]++;
+        }
+        for (int pairId = 0; pairId < counts.length; pairId++) {
+            assertEquals(groupSize, counts[pairId], "cards of pair " + pairId);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectedTurnsSolverTest {
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void singlePairTakesOneTurn() throws IOException {
+        assertEquals(1, solver().expectedTurns(1), 1e-12);
+    }
+
+    @Test
+    void twoPairsMatchTheHandSolution() throws IOException {
+        // the first two cards match with probability 1/3, leaving a pair to turn over: 2 turns; otherwise both pairs
+        // are half known, so the next turn matches one and the last turn the other: 3 turns
+        assertEquals((1.0 / 3) * 2 + (2.0 / 3) * 3, solver().expectedTurns(2), 1e-12);
+        assertEquals(8.0 / 3, solver().expectedTurns(2, 2, 2), 1e-12);
+    }
+
+    @Test
+    void defaultBoardNeedsAbout23Point69Turns() throws IOException {
+        assertEquals(23.69, solver().expectedTurns(6, 5, 2), 0.005);
+    }
+
+    @Test
+    void solutionsAreReadBackFromTheCache() throws IOException {
+        double expected = solver().expectedTurns(100);
+        double[] solved = ExpectedTurnsSolver.solve(100);
+
+        assertEquals(solved[100], expected);
+        assertEquals(expected, solver().expectedTurns(100));
+        assertEquals(solved[50], solver().expectedTurns(50));
+    }
+
+    @Test
+    void boardsThatAreNotDealtInPairsAreRejected() {
+        ExpectedTurnsSolver solver = solver();
+        assertThrows(IllegalArgumentException.class, () -> solver.expectedTurns(5, 5, 2));
+        assertThrows(IllegalArgumentException.class, () -> solver.expectedTurns(6, 5, 3));
+        assertThrows(IllegalArgumentException.class, () -> solver.expectedTurns(4, 4, 4));
+        assertThrows(IllegalArgumentException.class, () -> solver.expectedTurns(-1));
+    }
+
+    private ExpectedTurnsSolver solver() {
+        return new ExpectedTurnsSolver(cacheDirectory.resolve("expected-turns.bin"));
+    }
+}
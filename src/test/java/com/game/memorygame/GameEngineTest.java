@@ -0,0 +1,130 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEngineTest {
+    // slots 0 and 2 hold pair 0, slots 1 and 3 hold pair 1
+    private static final int[] PAIR_IDS = {0, 1, 0, 1};
+
+    @Test
+    void matchingSelectionIsDisabled() {
+        GameEngine engine = new GameEngine(PAIR_IDS.clone());
+
+        assertEquals(GameEngine.FlipResult.SELECTED, engine.flip(0));
+        assertEquals(GameEngine.FlipResult.SELECTION_COMPLETE, engine.flip(2));
+        assertTrue(engine.evaluateCardSelections());
+        assertTrue(engine.evaluateSelection());
+
+        assertEquals(CardState.DISABLED, engine.getState(0));
+        assertEquals(CardState.DISABLED, engine.getState(2));
+        assertEquals(CardState.INACTIVE, engine.getState(1));
+        assertFalse(engine.isGameOver());
+    }
+
+    @Test
+    void mismatchingSelectionIsHiddenAgain() {
+        GameEngine engine = new GameEngine(PAIR_IDS.clone());
+
+        engine.flip(0);
+        engine.flip(1);
+        assertFalse(engine.evaluateSelection());
+
+        assertEquals(CardState.INACTIVE, engine.getState(0));
+        assertEquals(CardState.INACTIVE, engine.getState(1));
+    }
+
+    @Test
+    void flipsAreIgnoredOnSelectedCardsAndCompleteSelections() {
+        GameEngine engine = new GameEngine(PAIR_IDS.clone());
+
+        engine.flip(0);
+        assertEquals(GameEngine.FlipResult.IGNORED, engine.flip(0));
+        engine.flip(1);
+        assertEquals(GameEngine.FlipResult.IGNORED, engine.flip(2));
+        assertEquals(CardState.INACTIVE, engine.getState(2));
+    }
+
+    @Test
+    void gameIsOverOnceEveryPairIsMatched() {
+        GameEngine engine = new GameEngine(PAIR_IDS.clone());
+
+        playMatch(engine, 0, 2);
+        playMatch(engine, 1, 3);
+        assertTrue(engine.isGameOver());
+
+        engine.reset();
+        assertFalse(engine.isGameOver());
+        assertEquals(CardState.INACTIVE, engine.getState(0));
+    }
+
+    @Test
+    void triplesNeedThreeMatchingCards() {
+        GameEngine engine = new GameEngine(new int[] {0, 0, 1, 0, 1, 1}, 3);
+
+        assertEquals(GameEngine.FlipResult.SELECTED, engine.flip(0));
+        assertEquals(GameEngine.FlipResult.SELECTED, engine.flip(1));
+        assertEquals(GameEngine.FlipResult.SELECTION_COMPLETE, engine.flip(3));
+        assertTrue(engine.evaluateSelection());
+    }
+
+    @Test
+    void flipAndEvaluationAllocateNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int[] pairIds = Dealer.dealForSeed(1000, GameEngine.DEFAULT_GROUP_SIZE, 1);
+        int[] slotsByPair = slotsByPair(pairIds);
+        GameEngine engine = new GameEngine(pairIds);
+        int mismatchSlot = pairIds[1] == pairIds[0] ? 2 : 1;
+
+        // warms up the loop until it is compiled, then measures it
+        playTurns(engine, slotsByPair, mismatchSlot, 200_000);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        playTurns(engine, slotsByPair, mismatchSlot, 200_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // getThreadAllocatedBytes may itself allocate a little, but nothing close to a byte per turn
+        assertTrue(allocated < 1024, allocated + " bytes allocated by 200000 turns");
+    }
+
+    /**
+     * Plays a mismatching turn, then a matching turn, the given number of times, dealing the game again when it is over
+     */
+    private static void playTurns(GameEngine engine, int[] slotsByPair, int mismatchSlot, int nTurns) {
+        int nextPair = 0;
+        for (int i = 0; i < nTurns; i++) {
+            if (engine.isGameOver()) {
+                engine.reset();
+                nextPair = 0;
+            }
+            if (engine.getState(0) == CardState.INACTIVE && engine.getState(mismatchSlot) == CardState.INACTIVE) {
+                engine.flip(0);
+                engine.flip(mismatchSlot);
+                engine.evaluateSelection();
+            }
+            int first = nextPair++ * GameEngine.DEFAULT_GROUP_SIZE;
+            playMatch(engine, slotsByPair[first], slotsByPair[first + 1]);
+        }
+    }
+
+    private static void playMatch(GameEngine engine, int slot, int otherSlot) {
+        engine.flip(slot);
+        engine.flip(otherSlot);
+        assertTrue(engine.evaluateSelection());
+    }
+
+    /**
+     * @return slots ordered so that the cards of pair p are at [2p, 2p + 2)
+     */
+    private static int[] slotsByPair(int[] pairIds) {
+        int[] slots = new int[pairIds.length];
+        int[] found = new int[pairIds.length / 2];
+        for (int slot = 0; slot < pairIds.length; slot++) {
+            slots[pairIds[slot] * 2 + found[pairIds[slot]]++] = slot;
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,417 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new GameServer(0);
+        serverThread = new Thread(server, "game-server");
+        serverThread.start();
+    }
+
+    @AfterEach
+    void stopServer() throws IOException, InterruptedException {
+        server.close();
+        serverThread.join();
+    }
+
+    /**
+     * A blocking client collecting the replies it is sent as {id, error code} pairs, error code 0 meaning created
+     */
+    private final class Client extends EventHandlerAdapter {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(1 << 16);
+        final List<int[]> replies = new ArrayList<>();
+
+        Client() throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        }
+
+        void send(ByteBuffer requests) throws IOException {
+            requests.flip();
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+            requests.clear();
+        }
+
+        void awaitReplies(int nReplies) throws IOException {
+            while (replies.size() < nReplies) {
+                assertTrue(channel.read(input) >= 0, "server closed the connection");
+                input.flip();
+                WireProtocol.decodeEvents(input, this, this);
+                input.compact();
+            }
+        }
+
+        @Override
+        public void created(Client client, int gameId) {
+            replies.add(new int[] {gameId, 0});
+        }
+
+        @Override
+        public void error(Client client, int gameId, int errorCode) {
+            replies.add(new int[] {gameId, errorCode});
+        }
+    }
+
+    @Test
+    void refusedCreatesDoNotUseUpGameIds() throws IOException {
+        Client client = new Client();
+        ByteBuffer requests = ByteBuffer.allocate(1 << 16);
+        for (int i = 0; i < 2000; i++) {
+            WireProtocol.putCreate(requests, 0, 1, 2, 1);
+        }
+        WireProtocol.putCreate(requests, 6, 5, 2, 1);
+        client.send(requests);
+        client.awaitReplies(2001);
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(WireProtocol.ERROR_INVALID_REQUEST, client.replies.get(i)[1]);
+        }
+        int[] created = client.replies.get(2000);
+        assertEquals(0, created[1]);
+        assertEquals(1, created[0] >>> 7, "index of the first game");
+    }
+
+    @Test
+    void tooManyPlayersAreRefusedAndTheServerKeepsServing() throws IOException {
+        Client client = new Client();
+        ByteBuffer requests = ByteBuffer.allocate(64);
+        WireProtocol.putCreate(requests, 6, 5, 2, Integer.MAX_VALUE);
+        WireProtocol.putCreate(requests, 6, 5, 2, ServerGame.MAX_PLAYERS + 1);
+        client.send(requests);
+        client.awaitReplies(2);
+        assertEquals(WireProtocol.ERROR_INVALID_REQUEST, client.replies.get(0)[1]);
+        assertEquals(WireProtocol.ERROR_INVALID_REQUEST, client.replies.get(1)[1]);
+
+        Client other = new Client();
+        WireProtocol.putCreate(requests, 6, 5, 2, ServerGame.MAX_PLAYERS);
+        other.send(requests);
+        other.awaitReplies(1);
+        assertEquals(0, other.replies.get(0)[1]);
+    }
+
+    @Test
+    void connectionCannotHoldMoreThanItsShareOfCards() throws IOException {
+        Client client = new Client();
+        int nMaxSizeGames = GameServer.MAX_CARDS_PER_CONNECTION / ServerGame.MAX_CARDS;
+        ByteBuffer requests = ByteBuffer.allocate(1024);
+        for (int i = 0; i <= nMaxSizeGames; i++) {
+            WireProtocol.putCreate(requests, 1024, ServerGame.MAX_CARDS / 1024, 2, 2);
+        }
+        client.send(requests);
+        client.awaitReplies(nMaxSizeGames + 1);
+
+        for (int i = 0; i < nMaxSizeGames; i++) {
+            assertEquals(0, client.replies.get(i)[1]);
+        }
+        assertEquals(WireProtocol.ERROR_REJECTED, client.replies.get(nMaxSizeGames)[1]);
+    }
+
+    @Test
+    void clientFloodingRequestsWithoutReadingIsThrottled() throws IOException, InterruptedException {
+        Client flooder = new Client();
+        flooder.channel.configureBlocking(false);
+        // every request is 3 bytes, for a game that does not exist
+        ByteBuffer requests = ByteBuffer.allocate(3 * 4096);
+        while (requests.remaining() >= 3) {
+            WireProtocol.putCardSelected(requests, 5, 0);
+        }
+        requests.flip();
+        long nBytesSent = 0;
+        long stalledSince = System.nanoTime();
+        while (System.nanoTime() - stalledSince < 500_000_000L && nBytesSent < 1L << 30) {
+            int n = flooder.channel.write(requests);
+            if (n > 0) {
+                nBytesSent += n;
+                stalledSince = System.nanoTime();
+            }
+            if (!requests.hasRemaining()) {
+                requests.rewind();
+            }
+        }
+        assertTrue(nBytesSent < 1L << 30, "the server kept reading requests whose replies were not read");
+        assertTrue(serverThread.isAlive());
+        assertTrue(server.getNumberOfAllocatedBuffers() <= Connection.MAX_OUTPUT_BUFFERS_WHILE_READING + 4,
+                server.getNumberOfAllocatedBuffers() + " buffers allocated");
+
+        Client other = new Client();
+        ByteBuffer create = ByteBuffer.allocate(64);
+        WireProtocol.putCreate(create, 6, 5, 2, 2);
+        other.send(create);
+        other.awaitReplies(1);
+        assertEquals(0, other.replies.get(0)[1]);
+
+        // once the flooder reads its replies, the server reads the rest of its requests and answers every one,
+        // leaving the request cut short by the last write incomplete
+        flooder.channel.configureBlocking(true);
+        long nRequests = nBytesSent / 3;
+        long[] nErrors = new long[1];
+        WireProtocol.EventHandler<Client> counter = new EventHandlerAdapter() {
+            @Override
+            public void error(Client client, int gameId, int errorCode) {
+                assertEquals(WireProtocol.ERROR_INVALID_REQUEST, errorCode);
+                nErrors[0]++;
+            }
+        };
+        while (nErrors[0] < nRequests) {
+            assertTrue(flooder.channel.read(flooder.input) >= 0, "server closed the connection");
+            flooder.input.flip();
+            WireProtocol.decodeEvents(flooder.input, flooder, counter);
+            flooder.input.compact();
+        }
+        assertEquals(nRequests, nErrors[0]);
+    }
+
+    /**
+     * A blocking client reading one batch of events at a time, each recorded as its type followed by its fields
+     */
+    private final class Player implements WireProtocol.EventHandler<Player> {
+        final SocketChannel channel;
+        final ByteBuffer input = ByteBuffer.allocate(1 << 16);
+        final List<int[]> events = new ArrayList<>();
+        byte[] bytes;
+
+        Player() throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        }
+
+        void send(ByteBuffer requests) throws IOException {
+            requests.flip();
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+            requests.clear();
+        }
+
+        /**
+         * Reads once, so every event read was sent by a single flush of the server
+         * @return the events read, of which there is no incomplete one
+         */
+        List<int[]> readOnce() throws IOException {
+            events.clear();
+            assertTrue(channel.read(input) > 0, "server closed the connection");
+            input.flip();
+            bytes = new byte[input.remaining()];
+            input.get(input.position(), bytes);
+            WireProtocol.decodeEvents(input, this, this);
+            assertFalse(input.hasRemaining(), "a message was cut across flushes");
+            input.clear();
+            return events;
+        }
+
+        @Override
+        public void created(Player player, int gameId) {
+            events.add(new int[] {WireProtocol.CREATED, gameId});
+        }
+
+        @Override
+        public void joined(Player player, int gameId, int playerNumber) {
+            events.add(new int[] {WireProtocol.JOINED, gameId, playerNumber});
+        }
+
+        @Override
+        public void gameStarted(Player player, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+            events.add(new int[] {WireProtocol.GAME_STARTED, gameId, nCols, nRows, groupSize, nPlayers});
+        }
+
+        @Override
+        public void cardRevealed(Player player, int gameId, int playerNumber, int slot, int pairId, int argb) {
+            events.add(new int[] {WireProtocol.CARD_REVEALED, gameId, playerNumber, slot, pairId, argb});
+        }
+
+        @Override
+        public void match(Player player, int gameId, int playerNumber, int score) {
+            events.add(new int[] {WireProtocol.MATCH, gameId, playerNumber, score});
+        }
+
+        @Override
+        public void mismatch(Player player, int gameId, int nextPlayer) {
+            events.add(new int[] {WireProtocol.MISMATCH, gameId, nextPlayer});
+        }
+
+        @Override
+        public void gameOver(Player player, int gameId) {
+            events.add(new int[] {WireProtocol.GAME_OVER, gameId});
+        }
+
+        @Override
+        public void error(Player player, int gameId, int errorCode) {
+            events.add(new int[] {WireProtocol.ERROR, gameId, errorCode});
+        }
+    }
+
+    @Test
+    void twoPlayersPlayAWholeGameLearningEachCardOnlyWhenItIsRevealed() throws IOException {
+        Player[] players = {new Player(), new Player()};
+        ByteBuffer requests = ByteBuffer.allocate(64);
+        WireProtocol.putCreate(requests, 6, 5, 2, 2);
+        players[0].send(requests);
+        List<int[]> created = players[0].readOnce();
+        assertEquals(1, created.size());
+        int gameId = created.get(0)[1];
+        WireProtocol.putJoin(requests, gameId);
+        players[1].send(requests);
+
+        // the start of the game tells the size of the board and nothing else, neither the seed nor the deal
+        ByteBuffer expected = ByteBuffer.allocate(64);
+        WireProtocol.putJoined(expected, gameId, 1);
+        WireProtocol.putGameStarted(expected, gameId, 6, 5, 2, 2);
+        players[1].readOnce();
+        assertArrayEquals(Arrays.copyOf(expected.array(), expected.position()), players[1].bytes);
+        expected.clear();
+        WireProtocol.putGameStarted(expected, gameId, 6, 5, 2, 2);
+        players[0].readOnce();
+        assertArrayEquals(Arrays.copyOf(expected.array(), expected.position()), players[0].bytes);
+
+        // the players only remember what they are shown: they pick a known pair, or else the first unknown card
+        int nSlots = 30;
+        int[] pairIds = new int[nSlots];
+        Arrays.fill(pairIds, -1);
+        boolean[] matched = new boolean[nSlots];
+        int[] argbsByPair = new int[nSlots / 2];
+        int currentPlayer = 0;
+        int nMatches = 0;
+        while (nMatches < nSlots / 2) {
+            int first = knownPairSlot(pairIds, matched);
+            if (first < 0) {
+                first = nextUnknownSlot(pairIds, -1);
+            }
+            pairIds[first] = flip(players, currentPlayer, gameId, first, argbsByPair, requests);
+            int second = partnerOf(pairIds, first);
+            if (second < 0) {
+                second = nextUnknownSlot(pairIds, first);
+            }
+            pairIds[second] = flip(players, currentPlayer, gameId, second, argbsByPair, requests);
+
+            boolean isMatch = pairIds[first] == pairIds[second];
+            if (isMatch) {
+                matched[first] = matched[second] = true;
+                nMatches++;
+            }
+            for (Player player : players) {
+                List<int[]> events = player.events;
+                assertEquals(nMatches == nSlots / 2 ? 3 : 2, events.size());
+                int[] evaluated = events.get(1);
+                assertEquals(isMatch ? WireProtocol.MATCH : WireProtocol.MISMATCH, evaluated[0]);
+                if (!isMatch) {
+                    assertEquals(1 - currentPlayer, evaluated[2]);
+                }
+            }
+            if (!isMatch) {
+                currentPlayer = 1 - currentPlayer;
+            }
+        }
+
+        assertEquals(WireProtocol.GAME_OVER, players[0].events.get(2)[0]);
+        assertEquals(WireProtocol.GAME_OVER, players[1].events.get(2)[0]);
+        assertEquals(0, server.getNumberOfGames());
+    }
+
+    /**
+     * Turns over a card and reads what each player is sent in reply, which has to come in a single flush and start
+     * with the reveal of that card and no other
+     * @return pair id of the card
+     */
+    private static int flip(Player[] players, int currentPlayer, int gameId, int slot, int[] argbsByPair,
+            ByteBuffer requests) throws IOException {
+        WireProtocol.putCardSelected(requests, gameId, slot);
+        players[currentPlayer].send(requests);
+        int pairId = -1;
+        for (Player player : players) {
+            int[] revealed = player.readOnce().get(0);
+            assertEquals(WireProtocol.CARD_REVEALED, revealed[0]);
+            assertEquals(currentPlayer, revealed[2]);
+            assertEquals(slot, revealed[3]);
+            pairId = revealed[4];
+            if (argbsByPair[pairId] == 0) {
+                argbsByPair[pairId] = revealed[5];
+            }
+            assertEquals(argbsByPair[pairId], revealed[5], "the cards of a pair have the same color");
+        }
+        return pairId;
+    }
+
+    /**
+     * @return a card not matched yet whose partner is known, or -1 if there is none
+     */
+    private static int knownPairSlot(int[] pairIds, boolean[] matched) {
+        for (int slot = 0; slot < pairIds.length; slot++) {
+            if (!matched[slot] && partnerOf(pairIds, slot) >= 0) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the other known card of the pair of the card at slot, or -1 if it is not known yet
+     */
+    private static int partnerOf(int[] pairIds, int slot) {
+        if (pairIds[slot] < 0) return -1;
+        for (int other = 0; other < pairIds.length; other++) {
+            if (other != slot && pairIds[other] == pairIds[slot]) return other;
+        }
+        return -1;
+    }
+
+    private static int nextUnknownSlot(int[] pairIds, int after) {
+        for (int slot = after + 1; slot < pairIds.length; slot++) {
+            if (pairIds[slot] < 0) return slot;
+        }
+        throw new IllegalStateException("every card is known");
+    }
+
+    /**
+     * Ignores every event, so that subclasses only override the events they look at
+     */
+    private abstract static class EventHandlerAdapter implements WireProtocol.EventHandler<Client> {
+        @Override
+        public void created(Client client, int gameId) {
+        }
+
+        @Override
+        public void joined(Client client, int gameId, int player) {
+        }
+
+        @Override
+        public void gameStarted(Client client, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+        }
+
+        @Override
+        public void cardRevealed(Client client, int gameId, int player, int slot, int pairId, int argb) {
+        }
+
+        @Override
+        public void match(Client client, int gameId, int player, int score) {
+        }
+
+        @Override
+        public void mismatch(Client client, int gameId, int nextPlayer) {
+        }
+
+        @Override
+        public void gameOver(Client client, int gameId) {
+        }
+
+        @Override
+        public void error(Client client, int gameId, int errorCode) {
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.game.memorygame;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireProtocolTest {
+    /**
+     * Records every decoded message as text, so a sequence of messages can be compared at once
+     */
+    private static final class Recorder
+            implements WireProtocol.RequestHandler<String>, WireProtocol.EventHandler<String> {
+        final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void create(String context, int nCols, int nRows, int groupSize, int nPlayers) {
+            messages.add(context + " create " + nCols + " " + nRows + " " + groupSize + " " + nPlayers);
+        }
+
+        @Override
+        public void join(String context, int gameId) {
+            messages.add(context + " join " + gameId);
+        }
+
+        @Override
+        public void cardSelected(String context, int gameId, int slot) {
+            messages.add(context + " cardSelected " + gameId + " " + slot);
+        }
+
+        @Override
+        public void created(String context, int gameId) {
+            messages.add(context + " created " + gameId);
+        }
+
+        @Override
+        public void joined(String context, int gameId, int player) {
+            messages.add(context + " joined " + gameId + " " + player);
+        }
+
+        @Override
+        public void gameStarted(String context, int gameId, int nCols, int nRows, int groupSize, int nPlayers) {
+            messages.add(context + " gameStarted " + gameId + " " + nCols + " " + nRows + " " + groupSize + " "
+                    + nPlayers);
+        }
+
+        @Override
+        public void cardRevealed(String context, int gameId, int player, int slot, int pairId, int argb) {
+            messages.add(context + " cardRevealed " + gameId + " " + player + " " + slot + " " + pairId + " "
+                    + Integer.toHexString(argb));
+        }
+
+        @Override
+        public void match(String context, int gameId, int player, int score) {
+            messages.add(context + " match " + gameId + " " + player + " " + score);
+        }
+
+        @Override
+        public void mismatch(String context, int gameId, int nextPlayer) {
+            messages.add(context + " mismatch " + gameId + " " + nextPlayer);
+        }
+
+        @Override
+        public void gameOver(String context, int gameId) {
+            messages.add(context + " gameOver " + gameId);
+        }
+
+        @Override
+        public void error(String context, int gameId, int errorCode) {
+            messages.add(context + " error " + gameId + " " + errorCode);
+        }
+    }
+
+    private static final List<String> REQUESTS = List.of(
+            "c create 6 5 2 1",
+            "c create 1000 1000 3 8",
+            "c join 128",
+            "c cardSelected 129 0",
+            "c cardSelected " + Integer.MAX_VALUE + " 999999");
+
+    private static final List<String> EVENTS = List.of(
+            "c created 128",
+            "c joined 128 1",
+            "c gameStarted 128 1000 1000 2 2",
+            "c cardRevealed 128 1 999999 499999 ff8040c0",
+            "c cardRevealed 128 0 0 0 0",
+            "c match 128 1 500000",
+            "c mismatch 128 0",
+            "c gameOver 128",
+            "c error 0 " + WireProtocol.ERROR_INVALID_REQUEST);
+
+    private static ByteBuffer encodeRequests() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        WireProtocol.putCreate(buffer, 6, 5, 2, 1);
+        WireProtocol.putCreate(buffer, 1000, 1000, 3, 8);
+        WireProtocol.putJoin(buffer, 128);
+        WireProtocol.putCardSelected(buffer, 129, 0);
+        WireProtocol.putCardSelected(buffer, Integer.MAX_VALUE, 999999);
+        return buffer.flip();
+    }
+
+    private static ByteBuffer encodeEvents() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        WireProtocol.putCreated(buffer, 128);
+        WireProtocol.putJoined(buffer, 128, 1);
+        WireProtocol.putGameStarted(buffer, 128, 1000, 1000, 2, 2);
+        WireProtocol.putCardRevealed(buffer, 128, 1, 999999, 499999, 0xFF8040C0);
+        WireProtocol.putCardRevealed(buffer, 128, 0, 0, 0, 0);
+        WireProtocol.putMatch(buffer, 128, 1, 500000);
+        WireProtocol.putMismatch(buffer, 128, 0);
+        WireProtocol.putGameOver(buffer, 128);
+        WireProtocol.putError(buffer, 0, WireProtocol.ERROR_INVALID_REQUEST);
+        return buffer.flip();
+    }
+
+    @Test
+    void requestsRoundTrip() throws ProtocolException {
+        Recorder recorder = new Recorder();
+        ByteBuffer buffer = encodeRequests();
+
+        WireProtocol.decodeRequests(buffer, "c", recorder);
+
+        assertEquals(REQUESTS, recorder.messages);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void eventsRoundTrip() throws ProtocolException {
+        Recorder recorder = new Recorder();
+        ByteBuffer buffer = encodeEvents();
+
+        WireProtocol.decodeEvents(buffer, "c", recorder);
+
+        assertEquals(EVENTS, recorder.messages);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void requestsSplitAtEveryByteDecodeTheSame() throws ProtocolException {
+        ByteBuffer encoded = encodeRequests();
+        for (int split = 0; split <= encoded.limit(); split++) {
+            Recorder recorder = new Recorder();
+            feedInTwoParts(encoded, split, buffer -> WireProtocol.decodeRequests(buffer, "c", recorder));
+            assertEquals(REQUESTS, recorder.messages, "split at " + split);
+        }
+    }
+
+    @Test
+    void eventsSplitAtEveryByteDecodeTheSame() throws ProtocolException {
+        ByteBuffer encoded = encodeEvents();
+        for (int split = 0; split <= encoded.limit(); split++) {
+            Recorder recorder = new Recorder();
+            feedInTwoParts(encoded, split, buffer -> WireProtocol.decodeEvents(buffer, "c", recorder));
+            assertEquals(EVENTS, recorder.messages, "split at " + split);
+        }
+    }
+
+    @Test
+    void incompleteMessageIsLeftInTheBuffer() throws ProtocolException {
+        ByteBuffer encoded = encodeEvents();
+        // the created message takes 3 bytes, and the joined message after it is cut after its type and game
+        ByteBuffer partial = encoded.duplicate().limit(6);
+        Recorder recorder = new Recorder();
+
+        WireProtocol.decodeEvents(partial, "c", recorder);
+
+        assertEquals(List.of("c created 128"), recorder.messages);
+        assertEquals(3, partial.position());
+    }
+
+    @Test
+    void varintsUseOneByteBelow128AndFiveForTheLargestInt() throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        WireProtocol.putVarint(buffer, 127);
+        assertEquals(1, buffer.position());
+        WireProtocol.putVarint(buffer, 128);
+        assertEquals(3, buffer.position());
+        WireProtocol.putVarint(buffer, Integer.MAX_VALUE);
+        assertEquals(8, buffer.position());
+
+        buffer.flip();
+        assertEquals(127, WireProtocol.getVarint(buffer));
+        assertEquals(128, WireProtocol.getVarint(buffer));
+        assertEquals(Integer.MAX_VALUE, WireProtocol.getVarint(buffer));
+    }
+
+    @Test
+    void oversizedVarintIsRejected() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        assertThrows(ProtocolException.class, () -> WireProtocol.getVarint(buffer));
+    }
+
+    @Test
+    void unknownMessageTypeIsRejected() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] {WireProtocol.CREATED, 1});
+        assertThrows(ProtocolException.class, () -> WireProtocol.decodeRequests(buffer, "c", new Recorder()));
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+        void decode(ByteBuffer buffer) throws ProtocolException;
+    }
+
+    /**
+     * Hands the bytes to the decoder in two reads split at the given offset, keeping what the first read left
+     * undecoded in front of the second, as {@link Connection} does
+     */
+    private static void feedInTwoParts(ByteBuffer encoded, int split, Decoder decoder) throws ProtocolException {
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.limit());
+        buffer.put(encoded.duplicate().limit(split)).flip();
+        decoder.decode(buffer);
+        buffer.compact();
+        buffer.put(encoded.duplicate().position(split)).flip();
+        decoder.decode(buffer);
+        assertFalse(buffer.hasRemaining());
+    }
+}